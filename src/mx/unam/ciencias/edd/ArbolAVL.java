@@ -9,14 +9,16 @@ package mx.unam.ciencias.edd;
 public class ArbolAVL<T extends Comparable<T>> extends ArbolBinarioOrdenado<T> {
 
     /**
-     * Clase interna protegida para vértices de árboles AVL. La única diferencia
-     * con los vértices de árbol binario, es que tienen una variable de clase
-     * para la altura del vértice.
+     * Clase interna protegida para vértices de árboles AVL. La diferencia con
+     * los vértices de árbol binario, es que tienen variables de clase para la
+     * altura del vértice y para el número de vértices en su subárbol.
      */
     protected class VerticeAVL extends ArbolBinario<T>.Vertice {
 
         /** La altura del vértice. */
         public int altura;
+        /** El número de vértices en el subárbol del vértice. */
+        public int tamano;
 
         /**
          * Constructor único que recibe un elemento.
@@ -25,6 +27,7 @@ public class ArbolAVL<T extends Comparable<T>> extends ArbolBinarioOrdenado<T> {
         public VerticeAVL(T elemento) {
             super(elemento);
             altura = 0;
+            tamano = 1;
         }
 	
 
@@ -59,6 +62,60 @@ public class ArbolAVL<T extends Comparable<T>> extends ArbolBinarioOrdenado<T> {
     }
 
 
+    /**
+     * Construye un árbol AVL con los elementos de una lista ordenada, en
+     * tiempo <i>O</i>(<i>n</i>). El elemento de en medio queda en la raíz y
+     * cada mitad se construye igual, así que el árbol queda perfectamente
+     * balanceado sin hacer ningún giro.
+     * @param <T> el tipo de los elementos.
+     * @param lista la lista ordenada.
+     * @return un árbol AVL con los elementos de la lista.
+     * @throws IllegalArgumentException si la lista tiene elementos nulos o no
+     *         está ordenada.
+     */
+    public static <T extends Comparable<T>> ArbolAVL<T> deOrdenados(Lista<T> lista) {
+        return deArreglo(arregloOrdenado(lista));
+    }
+
+    /**
+     * Construye un árbol AVL con los elementos de un arreglo ordenado, en
+     * tiempo <i>O</i>(<i>n</i>).
+     * @param <T> el tipo de los elementos.
+     * @param arreglo el arreglo ordenado.
+     * @return un árbol AVL con los elementos del arreglo.
+     * @throws IllegalArgumentException si el arreglo tiene elementos nulos o
+     *         no está ordenado.
+     */
+    public static <T extends Comparable<T>> ArbolAVL<T> deOrdenados(T[] arreglo) {
+        verificaOrden(arreglo);
+        return deArreglo(arreglo);
+    }
+
+    /* Construye el árbol con un arreglo ya verificado. */
+    private static <T extends Comparable<T>> ArbolAVL<T> deArreglo(T[] arreglo) {
+        ArbolAVL<T> arbol = new ArbolAVL<T>();
+        arbol.raiz = arbol.construye(arreglo, 0, arreglo.length);
+        arbol.elementos = arreglo.length;
+        return arbol;
+    }
+
+    /* Construye el subárbol con los elementos en [i, j) del arreglo, con sus
+     * alturas y tamaños. */
+    private VerticeAVL construye(T[] arreglo, int i, int j) {
+        if (i >= j)
+            return null;
+        int m = (i + j) >>> 1;
+        VerticeAVL vertice = verticeAVL(nuevoVertice(arreglo[m]));
+        vertice.izquierdo = construye(arreglo, i, m);
+        vertice.derecho = construye(arreglo, m + 1, j);
+        if (vertice.izquierdo != null)
+            vertice.izquierdo.padre = vertice;
+        if (vertice.derecho != null)
+            vertice.derecho.padre = vertice;
+        cambiaAltura(vertice);
+        return vertice;
+    }
+
     	private boolean esHijoIzquierdo(Vertice v){ 
 	if(v==null)
 	return false;
@@ -90,32 +147,147 @@ public class ArbolAVL<T extends Comparable<T>> extends ArbolBinarioOrdenado<T> {
      */
     @Override public void agrega(T elemento) {
         super.agrega(elemento);
-        rebalancea(verticeAVL(ultimoAgregado));
+        rebalancea(verticeAVL(ultimoAgregado.padre), 1);
     }
 
-    private void rebalancea(VerticeAVL vertice) {
-        if (vertice == null)
-            return;
+    /* Sube desde el vértice hacia la raíz recalculando alturas y girando
+     * donde haga falta. En cuanto un subárbol termina con la misma altura que
+     * tenía, los de arriba ya no cambian de altura y se deja de balancear;
+     * sólo falta sumarles el cambio de tamaño. Al agregar esto ocurre a más
+     * tardar después del primer giro. */
+    private void rebalancea(VerticeAVL vertice, int cambioTamano) {
+        while (vertice != null) {
+            int alturaAnterior = vertice.altura;
+            cambiaAltura(vertice);
+
+            VerticeAVL subarbol = vertice;
+            if (balance(vertice) == -2) {
+                if (balance(verticeAVL(vertice.derecho)) == 1)
+                    giraDerechaAVL(verticeAVL(vertice.derecho));
+
+                giraIzquierdaAVL(vertice);
+                subarbol = verticeAVL(vertice.padre);
+            } else if (balance(vertice) == 2) {
+                if (balance(verticeAVL(vertice.izquierdo)) == -1)
+                    giraIzquierdaAVL(verticeAVL(vertice.izquierdo));
+
+                giraDerechaAVL(vertice);
+                subarbol = verticeAVL(vertice.padre);
+            }
 
-        cambiaAltura(vertice);
+            vertice = verticeAVL(subarbol.padre);
+            if (subarbol.altura == alturaAnterior) {
+                for (; vertice != null; vertice = verticeAVL(vertice.padre))
+                    vertice.tamano += cambioTamano;
+                return;
+            }
+        }
+    }
+
+    /* Recalcula la altura y el tamaño del vértice a partir de sus hijos. */
+    private void cambiaAltura(VerticeAVL vertice) {
+        vertice.altura = 1 + Math.max(getAltura(verticeAVL(vertice.izquierdo)), getAltura(verticeAVL(vertice.derecho)));;
+        vertice.tamano = 1 + getTamano(vertice.izquierdo) + getTamano(vertice.derecho);
+    }
 
-        if (balance(vertice) == -2) {
-            if (balance(verticeAVL(vertice.derecho)) == 1)
-                giraDerechaAVL(verticeAVL(vertice.derecho));
+    /* Regresa el número de vértices en el subárbol del vértice. */
+    private int getTamano(VerticeArbolBinario<T> vertice) {
+        return vertice == null ? 0 : verticeAVL(vertice).tamano;
+    }
 
-            giraIzquierdaAVL(vertice);
-        } else if (balance(vertice) == 2) {
-            if (balance(verticeAVL(vertice.izquierdo)) == -1)
-                giraIzquierdaAVL(verticeAVL(vertice.izquierdo));
+    /**
+     * Regresa el elemento con índice <i>k</i> en orden; es decir, el elemento
+     * que tiene exactamente <i>k</i> elementos antes que él al recorrer el
+     * árbol en orden. La complejidad en tiempo del método es
+     * <i>O</i>(log <i>n</i>) garantizado.
+     * @param k el índice del elemento, empezando en cero.
+     * @return el elemento con índice <i>k</i>.
+     * @throws ExcepcionIndiceInvalido si <i>k</i> es menor que cero o mayor o
+     *         igual que el número de elementos en el árbol.
+     */
+    public T seleccion(int k) {
+        if (k < 0 || k >= getTamano(raiz))
+            throw new ExcepcionIndiceInvalido();
+        Vertice vertice = raiz;
+        while (true) {
+            int izquierdos = getTamano(vertice.izquierdo);
+            if (k < izquierdos) {
+                vertice = vertice.izquierdo;
+            } else if (k == izquierdos) {
+                return vertice.elemento;
+            } else {
+                k -= izquierdos + 1;
+                vertice = vertice.derecho;
+            }
+        }
+    }
 
-            giraDerechaAVL(vertice);
+    /**
+     * Regresa cuántos elementos del árbol son estrictamente menores que el
+     * elemento recibido. Si el elemento está en el árbol, es su índice en
+     * orden. La complejidad en tiempo del método es <i>O</i>(log <i>n</i>)
+     * garantizado.
+     * @param elemento el elemento del que queremos el rango.
+     * @return el número de elementos menores que el elemento.
+     * @throws IllegalArgumentException si el elemento es nulo.
+     */
+    public int rango(T elemento) {
+        if (elemento == null)
+            throw new IllegalArgumentException("Elemento nulo.");
+        int rango = 0;
+        Vertice vertice = raiz;
+        while (vertice != null) {
+            if (elemento.compareTo(vertice.elemento) <= 0) {
+                vertice = vertice.izquierdo;
+            } else {
+                rango += getTamano(vertice.izquierdo) + 1;
+                vertice = vertice.derecho;
+            }
         }
-        
-        rebalancea(verticeAVL(vertice.padre));
+        return rango;
     }
 
-    private void cambiaAltura(VerticeAVL vertice) {
-        vertice.altura = 1 + Math.max(getAltura(verticeAVL(vertice.izquierdo)), getAltura(verticeAVL(vertice.derecho)));;
+    /**
+     * Regresa una lista con los elementos con índices en orden entre
+     * <i>desde</i> (inclusive) y <i>hasta</i> (exclusive). Se baja al
+     * elemento con índice <i>desde</i> usando los tamaños de los subárboles y
+     * de ahí se recorre en orden, así que la complejidad en tiempo es
+     * <i>O</i>(log <i>n</i> + <i>k</i>), donde <i>k</i> es el número de
+     * elementos en la lista.
+     * @param desde el índice del primer elemento.
+     * @param hasta uno más que el índice del último elemento.
+     * @return una lista con los elementos, en orden.
+     * @throws ExcepcionIndiceInvalido si <i>desde</i> es menor que cero,
+     *         <i>hasta</i> es mayor que el número de elementos, o <i>desde</i>
+     *         es mayor que <i>hasta</i>.
+     */
+    public Lista<T> rebanada(int desde, int hasta) {
+        if (desde < 0 || hasta > getTamano(raiz) || desde > hasta)
+            throw new ExcepcionIndiceInvalido();
+        Lista<T> lista = new Lista<T>();
+        Pila<Vertice> pila = new Pila<Vertice>();
+        Vertice vertice = raiz;
+        int k = desde;
+        while (vertice != null) {
+            int izquierdos = getTamano(vertice.izquierdo);
+            if (k < izquierdos) {
+                pila.mete(vertice);
+                vertice = vertice.izquierdo;
+            } else if (k == izquierdos) {
+                pila.mete(vertice);
+                vertice = null;
+            } else {
+                k -= izquierdos + 1;
+                vertice = vertice.derecho;
+            }
+        }
+        for (int i = desde; i < hasta; i++) {
+            vertice = pila.saca();
+            lista.agregaFinal(vertice.elemento);
+            for (Vertice v = vertice.derecho; v != null; v = v.izquierdo)
+                pila.mete(v);
+        }
+        return lista;
     }
 
     /**
@@ -167,7 +339,7 @@ public class ArbolAVL<T extends Comparable<T>> extends ArbolBinarioOrdenado<T> {
         else
             subirHijo(vertice);
         
-        rebalancea(verticeAVL(vertice.padre));
+        rebalancea(verticeAVL(vertice.padre), -1);
         elementos--;
     }
 
@@ -112,8 +112,9 @@ public abstract class ArbolBinario<T> implements Coleccion<T> {
         }
 
         /**
-         * Compara el vértice con otro objeto. La comparación es
-         * <em>recursiva</em>. Las clases que extiendan {@link Vertice} deben
+         * Compara el vértice con otro objeto. La comparación recorre a los
+         * descendientes de ambos vértices a la par, con una pila en lugar de
+         * recursión. Las clases que extiendan {@link Vertice} deben
          * sobrecargar el método {@link Vertice#equals}.
          * @param o el objeto con el cual se comparará el vértice.
          * @return <code>true</code> si el objeto es instancia de la clase
@@ -130,16 +131,33 @@ public abstract class ArbolBinario<T> implements Coleccion<T> {
 	    return equals(this, vertice);
         }
 
+	/* Compara los subárboles de los vértices; en la pila se meten los
+	 * pares de vértices por comparar, uno tras otro. */
 	private boolean equals(Vertice vertice1, Vertice vertice2) {
-	    if (vertice1 == null && vertice2 == null)
-		return true;
-	    if (vertice1 == null || vertice2 == null)
-		return false;
-	    if (vertice1.elemento.equals(vertice2.elemento))
-		return (equals(vertice1.izquierdo, vertice2.izquierdo) &&
-			equals(vertice1.derecho, vertice2.derecho));
-	    else
-		return false;
+	    Pila<Vertice> pila = new Pila<Vertice>();
+	    pila.mete(vertice1);
+	    pila.mete(vertice2);
+	    while (!pila.esVacia()) {
+		Vertice v2 = pila.saca();
+		Vertice v1 = pila.saca();
+		if (!v1.elemento.equals(v2.elemento))
+		    return false;
+		if (!mismoHijo(v1.izquierdo, v2.izquierdo, pila) ||
+		    !mismoHijo(v1.derecho, v2.derecho, pila))
+		    return false;
+	    }
+	    return true;
+	}
+
+	/* Nos dice si los dos hijos son nulos o ambos existen; si existen, los
+	 * mete en la pila para compararlos después. */
+	private boolean mismoHijo(Vertice hijo1, Vertice hijo2,
+				  Pila<Vertice> pila) {
+	    if (hijo1 == null || hijo2 == null)
+		return hijo1 == hijo2;
+	    pila.mete(hijo1);
+	    pila.mete(hijo2);
+	    return true;
 	}
     }
 
@@ -188,16 +206,27 @@ public abstract class ArbolBinario<T> implements Coleccion<T> {
 	return profundidad(raiz);	
     }
 
+    /* Recorre el subárbol por niveles y cuenta cuántos hay, para no
+     * depender de la pila de ejecución en árboles degenerados. */
     private int profundidad(Vertice vertice) {
 	if (vertice == null)
 	    return -1;
-	else if (!vertice.hayIzquierdo() && !vertice.hayDerecho())
-	    return 0;
-	int verticeI = profundidad(vertice.izquierdo);
-	int verticeD = profundidad(vertice.derecho);
-	if (verticeI < verticeD)
-	    return verticeD + 1;
-	return verticeI + 1;
+	int profundidad = -1;
+	Cola<Vertice> nivel = new Cola<Vertice>();
+	nivel.mete(vertice);
+	while (!nivel.esVacia()) {
+	    profundidad++;
+	    Cola<Vertice> siguiente = new Cola<Vertice>();
+	    while (!nivel.esVacia()) {
+		Vertice v = nivel.saca();
+		if (v.izquierdo != null)
+		    siguiente.mete(v.izquierdo);
+		if (v.derecho != null)
+		    siguiente.mete(v.derecho);
+	    }
+	    nivel = siguiente;
+	}
+	return profundidad;
     }
 
     /**
@@ -239,7 +268,10 @@ public abstract class ArbolBinario<T> implements Coleccion<T> {
     }
 
     /**
-     * Busca recursivamente un elemento, a partir del vértice recibido.
+     * Busca un elemento a partir del vértice recibido, en pre-orden: si el
+     * elemento está varias veces, regresa el vértice que aparece primero
+     * visitando cada vértice antes que a su izquierdo, y su izquierdo antes
+     * que a su derecho. Usa una pila en lugar de recursión.
      * @param vertice el vértice a partir del cuál comenzar la búsqueda. Puede
      *                ser <code>null</code>.
      * @param elemento el elemento a buscar a partir del vértice.
@@ -247,20 +279,20 @@ public abstract class ArbolBinario<T> implements Coleccion<T> {
      *         el árbol; <code>null</code> en otro caso.
      */
     protected Vertice busca(Vertice vertice, T elemento) {
-	if(vertice == null)
-            return null;
-	if (elemento == null)
+	if (vertice == null || elemento == null)
 	    return null;
-        if(vertice.elemento.equals(elemento))
-            return vertice;
-	
-        Vertice dv = busca(vertice.derecho, elemento);
-        Vertice iv = busca(vertice.izquierdo, elemento);
-        if(dv == null && iv == null)
-            return null;
-        if(iv != null)
-            return iv;
-	return dv;
+	Pila<Vertice> pila = new Pila<Vertice>();
+	pila.mete(vertice);
+	while (!pila.esVacia()) {
+	    Vertice v = pila.saca();
+	    if (v.elemento.equals(elemento))
+		return v;
+	    if (v.derecho != null)
+		pila.mete(v.derecho);
+	    if (v.izquierdo != null)
+		pila.mete(v.izquierdo);
+	}
+	return null;
     }
 
     /**
@@ -311,76 +343,80 @@ public abstract class ArbolBinario<T> implements Coleccion<T> {
             return "";
         /* Necesitamos la profundidad para saber cuántas ramas puede haber. */
         int p = profundidad() + 1;
-        /* true == dibuja rama, false == dibuja espacio. */
+        /* true == dibuja rama, false == dibuja espacio. Al inicio, no
+         * dibujamos ninguna rama. */
         boolean[] rama = new boolean[p];
-        for (int i = 0; i < p; i++)
-            /* Al inicio, no dibujamos ninguna rama. */
-            rama[i] = false;
-        String s = aCadena(raiz, 0, rama);
-        return s.substring(0, s.length()-1);
+        StringBuilder s = new StringBuilder();
+        aCadena(s, rama);
+        s.setLength(s.length()-1);
+        return s.toString();
+    }
+
+    /* Vértice pendiente por dibujar, con el conector que va antes de él y
+     * si hay que seguir dibujando la rama de su padre debajo de él. */
+    private class Pendiente {
+        public VerticeArbolBinario<T> vertice;
+        public int nivel;
+        public String conector;
+        public boolean rama;
+
+        public Pendiente(VerticeArbolBinario<T> vertice, int nivel,
+                         String conector, boolean rama) {
+            this.vertice = vertice;
+            this.nivel = nivel;
+            this.conector = conector;
+            this.rama = rama;
+        }
     }
 
-    /* Método auxiliar recursivo que hace todo el trabajo. */
-    private String aCadena(Vertice vertice, int nivel, boolean[] rama) {
-        /* Primero que nada agregamos el vertice a la cadena. */
-        String s = vertice + "\n";
-        /* A partir de aquí, dibujamos rama en este nivel. */
-        rama[nivel] = true;
-        if (vertice.izquierdo != null && vertice.derecho != null) {
-            /* Si hay vertice izquierdo Y derecho, dibujamos ramas o
-             * espacios. */
-            s += espacios(nivel, rama);
-            /* Dibujamos el conector al hijo izquierdo. */
-            s += "├─›";
-            /* Recursivamente dibujamos el hijo izquierdo y sus
-               descendientes. */
-            s += aCadena(vertice.izquierdo, nivel+1, rama);
-            /* Dibujamos ramas o espacios. */
-            s += espacios(nivel, rama);
-            /* Dibujamos el conector al hijo derecho. */
-            s += "└─»";
-            /* Como ya dibujamos el último hijo, ya no hay rama en este
-               nivel. */
-            rama[nivel] = false;
-            /* Recursivamente dibujamos el hijo derecho y sus descendientes. */
-            s += aCadena(vertice.derecho, nivel+1, rama);
-        } else if (vertice.izquierdo != null) {
-            /* Dibujamos ramas o espacios. */
-            s += espacios(nivel, rama);
-            /* Dibujamos el conector al hijo izquierdo. */
-            s += "└─›";
-            /* Como ya dibujamos el último hijo, ya no hay rama en este
-               nivel. */
-            rama[nivel] = false;
-            /* Recursivamente dibujamos el hijo izquierdo y sus
-               descendientes. */
-            s += aCadena(vertice.izquierdo, nivel+1, rama);
-        } else if (vertice.derecho != null) {
-            /* Dibujamos ramas o espacios. */
-            s += espacios(nivel, rama);
-            /* Dibujamos el conector al hijo derecho. */
-            s += "└─»";
-            /* Como ya dibujamos el último hijo, ya no hay rama en este
-               nivel. */
-            rama[nivel] = false;
-            /* Recursivamente dibujamos el hijo derecho y sus descendientes. */
-            s += aCadena(vertice.derecho, nivel+1, rama);
+    /* Método auxiliar que hace todo el trabajo. Recorre el árbol en pre-orden
+     * con una pila de vértices pendientes, en lugar de recursión. Sólo usa la
+     * interfaz VerticeArbolBinario, para servir también a subclases que no
+     * guardan sus elementos en instancias de Vertice. */
+    private void aCadena(StringBuilder s, boolean[] rama) {
+        Pila<Pendiente> pila = new Pila<Pendiente>();
+        pila.mete(new Pendiente(raiz(), 0, "", false));
+        while (!pila.esVacia()) {
+            Pendiente pendiente = pila.saca();
+            VerticeArbolBinario<T> vertice = pendiente.vertice;
+            int nivel = pendiente.nivel;
+            if (nivel > 0) {
+                /* La rama del padre sigue si el vértice es un izquierdo con
+                 * hermano derecho. */
+                rama[nivel-1] = pendiente.rama;
+                /* Dibujamos ramas o espacios, y el conector al vértice. */
+                espacios(s, nivel-1, rama);
+                s.append(pendiente.conector);
+            }
+            /* Agregamos el vertice a la cadena. */
+            s.append(vertice).append('\n');
+            /* Metemos primero al derecho, para dibujarlo después del
+             * izquierdo y sus descendientes. */
+            if (vertice.hayIzquierdo() && vertice.hayDerecho()) {
+                pila.mete(new Pendiente(vertice.getDerecho(), nivel+1, "└─»",
+                                        false));
+                pila.mete(new Pendiente(vertice.getIzquierdo(), nivel+1,
+                                        "├─›", true));
+            } else if (vertice.hayIzquierdo()) {
+                pila.mete(new Pendiente(vertice.getIzquierdo(), nivel+1,
+                                        "└─›", false));
+            } else if (vertice.hayDerecho()) {
+                pila.mete(new Pendiente(vertice.getDerecho(), nivel+1, "└─»",
+                                        false));
+            }
         }
-        return s;
     }
 
     /* Dibuja los espacios (incluidas las ramas, de ser necesarias) que van
        antes de un vértice. */
-    private String espacios(int n, boolean[] rama) {
-        String s = "";
+    private void espacios(StringBuilder s, int n, boolean[] rama) {
         for (int i = 0; i < n; i++)
             if (rama[i])
                 /* Rama: dibújala. */
-                s += "│  ";
+                s.append("│  ");
             else
                 /* No rama: dibuja espacio. */
-                s += "   ";
-        return s;
+                s.append("   ");
     }
 
     /**
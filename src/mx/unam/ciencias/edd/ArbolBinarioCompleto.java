@@ -8,34 +8,32 @@ import java.util.NoSuchElementException;
  *
  * <p>Un árbol binario completo agrega y elimina elementos de tal forma que el
  * árbol siempre es lo más cercano posible a estar lleno.</p>
+ *
+ * <p>Como el árbol siempre es completo, sus elementos se guardan en un
+ * arreglo en orden BFS, sin vértices: el elemento con índice <i>i</i> tiene
+ * a su izquierdo en el índice 2<i>i</i>+1, a su derecho en el índice
+ * 2<i>i</i>+2, y a su padre en el índice (<i>i</i>-1)/2. Agregar toma tiempo
+ * <i>O</i>(1) amortizado. Los métodos que regresan vértices, como {@link
+ * #raiz}, regresan vistas ligeras sobre los índices del arreglo.</p>
  */
 public class ArbolBinarioCompleto<T> extends ArbolBinario<T> {
 
     /* Clase privada para iteradores de árboles binarios completos. */
     private class Iterador implements Iterator<T> {
 
-        private Cola<ArbolBinario<T>.Vertice> cola;
-
-        /* Constructor que recibe la raíz del árbol. */
-        public Iterador() {
-	    cola = new Cola<>();
-	    if (raiz != null)
-		cola.mete(raiz);
-        }
+        /* El índice del siguiente elemento. */
+        private int siguiente;
 
         /* Nos dice si hay un elemento siguiente. */
         @Override public boolean hasNext() {
-	    return !cola.esVacia();
+	    return siguiente < elementos;
         }
 
         /* Regresa el elemento siguiente. */
         @Override public T next() {
-	    Vertice vertice = cola.saca();
-	    if(vertice.hayIzquierdo())
-		cola.mete(vertice.izquierdo);
-	    if(vertice.hayDerecho())
-		cola.mete(vertice.derecho);
-	    return vertice.get();
+	    if (!hasNext())
+		throw new NoSuchElementException();
+	    return arreglo[siguiente++];
 	}
 
         /* No lo implementamos: siempre lanza una excepción. */
@@ -44,6 +42,74 @@ public class ArbolBinarioCompleto<T> extends ArbolBinario<T> {
         }
     }
 
+    /* Clase privada para ver un índice del arreglo como vértice. */
+    private class VerticeArreglo implements VerticeArbolBinario<T> {
+
+        /* El índice del vértice en el arreglo. */
+        private int indice;
+
+        /* Construye la vista del índice recibido. */
+        public VerticeArreglo(int indice) {
+            this.indice = indice;
+        }
+
+        /* Regresa una representación en cadena del vértice. */
+        @Override public String toString() {
+            return arreglo[indice].toString();
+        }
+
+        /* Nos dice si el vértice tiene un padre. */
+        @Override public boolean hayPadre() {
+            return indice > 0;
+        }
+
+        /* Nos dice si el vértice tiene un izquierdo. */
+        @Override public boolean hayIzquierdo() {
+            return 2*indice + 1 < elementos;
+        }
+
+        /* Nos dice si el vértice tiene un derecho. */
+        @Override public boolean hayDerecho() {
+            return 2*indice + 2 < elementos;
+        }
+
+        /* Regresa el padre del vértice. */
+        @Override public VerticeArbolBinario<T> getPadre() {
+            if (!hayPadre())
+                throw new NoSuchElementException("No hay padre");
+            return new VerticeArreglo((indice - 1) / 2);
+        }
+
+        /* Regresa el izquierdo del vértice. */
+        @Override public VerticeArbolBinario<T> getIzquierdo() {
+            if (!hayIzquierdo())
+                throw new NoSuchElementException("No hay Izquierdo");
+            return new VerticeArreglo(2*indice + 1);
+        }
+
+        /* Regresa el derecho del vértice. */
+        @Override public VerticeArbolBinario<T> getDerecho() {
+            if (!hayDerecho())
+                throw new NoSuchElementException("No hay Derecho");
+            return new VerticeArreglo(2*indice + 2);
+        }
+
+        /* Regresa el elemento del vértice. */
+        @Override public T get() {
+            return arreglo[indice];
+        }
+    }
+
+    /* Los elementos del árbol en orden BFS. No se inicializa aquí porque el
+     * constructor de ArbolBinario agrega elementos antes de que se ejecuten
+     * los inicializadores de esta clase. */
+    private T[] arreglo;
+
+    /* Truco para crear arreglos genéricos. */
+    @SuppressWarnings("unchecked") private T[] creaArregloGenerico(int n) {
+        return (T[])(new Object[n]);
+    }
+
     /**
      * Constructor sin parámetros. Para no perder el constructor sin parámetros
      * de {@link ArbolBinario}.
@@ -64,7 +130,9 @@ public class ArbolBinarioCompleto<T> extends ArbolBinario<T> {
 
     /**
      * Agrega un elemento al árbol binario completo. El nuevo elemento se coloca
-     * a la derecha del último nivel, o a la izquierda de un nuevo nivel.
+     * a la derecha del último nivel, o a la izquierda de un nuevo nivel. Si el
+     * arreglo está lleno se duplica su tamaño, así que agregar toma tiempo
+     * <i>O</i>(1) amortizado.
      * @param elemento el elemento a agregar al árbol.
      * @throws IllegalArgumentException si <code>elemento</code> es
      *         <code>null</code>.
@@ -72,106 +140,146 @@ public class ArbolBinarioCompleto<T> extends ArbolBinario<T> {
     @Override public void agrega(T elemento) {
 	if (elemento == null)
 	    throw new IllegalArgumentException();
-	Vertice nuevo = nuevoVertice(elemento);
-	if (ultimoAgregado == null) {
-	    raiz = nuevo;
-	    ultimoAgregado = raiz;
-	}
-	else if (ultimoAgregado == raiz) {
-	    raiz.izquierdo = nuevo;
-	    raiz.izquierdo.padre = raiz;
-	    ultimoAgregado = raiz.izquierdo;
-	}
-	else if (esIzquierdo(ultimoAgregado)) {
-	    ultimoAgregado.padre.derecho = nuevo;
-	    ultimoAgregado.padre.derecho.padre = ultimoAgregado.padre;
-	    ultimoAgregado = ultimoAgregado.padre.derecho;
-	}
-	else {
-	    Vertice auxiliar = ultimoAgregado;
-	    while (auxiliar != raiz && esDerecho(auxiliar))
-		   auxiliar = auxiliar.padre;
-	    Vertice minimo;
-	    if (auxiliar == raiz)
-		minimo = minimoEnSubarbol(auxiliar);
-	    else
-		minimo = minimoEnSubarbol(auxiliar.padre.derecho);
-	    minimo.izquierdo = nuevo;
-	    minimo.izquierdo.padre = minimo;
-	    ultimoAgregado = minimo.izquierdo;
+	if (arreglo == null)
+	    arreglo = creaArregloGenerico(16);
+	else if (elementos == arreglo.length) {
+	    T[] nuevo = creaArregloGenerico(2 * arreglo.length);
+	    System.arraycopy(arreglo, 0, nuevo, 0, elementos);
+	    arreglo = nuevo;
 	}
-	elementos++;
+	arreglo[elementos++] = elemento;
     }
 
     /**
      * Elimina un elemento del árbol. El elemento a eliminar cambia lugares con
      * el último elemento del árbol al recorrerlo por BFS, y entonces es
-     * eliminado.
+     * eliminado. Si el elemento está varias veces, se elimina el primero en
+     * orden BFS.
      * @param elemento el elemento a eliminar.
      */
     @Override public void elimina(T elemento) {
-	Vertice borrado = busca(raiz, elemento);
-	if (borrado == null)
+	int i = indice(elemento);
+	if (i == -1)
 	    return;
-	borrado.elemento = ultimoAgregado.elemento;
-	Vertice nuevoU;
-	if (ultimoAgregado == raiz) {
-	    raiz =  null;
-	    nuevoU = null;
-	}
-	else if (esDerecho(ultimoAgregado))
-	    nuevoU = ultimoAgregado.padre.izquierdo;
-	else {
-	    Vertice auxiliar = ultimoAgregado;
-	    while (auxiliar != raiz && esIzquierdo(auxiliar))
-		auxiliar = auxiliar.padre;
-	    if (auxiliar == raiz)
-		nuevoU = maximoEnSubarbol(auxiliar);
-	    else
-		nuevoU = maximoEnSubarbol(auxiliar.padre.izquierdo);
-	}
-	if (ultimoAgregado.padre != null) {
-	    if (esIzquierdo(ultimoAgregado))
-		ultimoAgregado.padre.izquierdo = null;
-	    else
-		ultimoAgregado.padre.derecho = null;
-	}
-	ultimoAgregado = null;
-	ultimoAgregado = nuevoU;
-	elementos--;
+	arreglo[i] = arreglo[--elementos];
+	arreglo[elementos] = null;
     }
-    
+
+    /* Regresa el índice de la primera aparición del elemento en orden BFS,
+     * o -1 si no está en el árbol. */
+    private int indice(T elemento) {
+	if (elemento == null)
+	    return -1;
+	for (int i = 0; i < elementos; i++)
+	    if (arreglo[i].equals(elemento))
+		return i;
+	return -1;
+    }
+
     /**
-     * Regresa un iterador para iterar el árbol. El árbol se itera en orden BFS.
-     * @return un iterador para iterar el árbol.
+     * Nos dice si un elemento está en el árbol binario completo.
+     * @param elemento el elemento que queremos comprobar si está en el árbol.
+     * @return <code>true</code> si el elemento está en el árbol;
+     *         <code>false</code> en otro caso.
      */
-    @Override public Iterator<T> iterator() {
-        return new Iterador();
+    @Override public boolean contiene(T elemento) {
+	return indice(elemento) != -1;
     }
 
-    private boolean esIzquierdo(Vertice vertice) {
-	return vertice == vertice.padre.izquierdo;
+    /**
+     * Busca un elemento en el árbol. Si lo encuentra, regresa el vértice que lo
+     * contiene; si no, regresa <tt>null</tt>. Si el elemento está varias
+     * veces, regresa el primero en orden BFS.
+     * @param elemento el elemento a buscar.
+     * @return un vértice que contiene el elemento buscado si lo encuentra;
+     *         <tt>null</tt> en otro caso.
+     */
+    @Override public VerticeArbolBinario<T> busca(T elemento) {
+	int i = indice(elemento);
+	return i == -1 ? null : new VerticeArreglo(i);
     }
 
-    private boolean esDerecho(Vertice vertice) {
-	return vertice == vertice.padre.derecho;
+    /**
+     * Regresa el vértice que contiene la raíz del árbol.
+     * @return el vértice que contiene la raíz del árbol.
+     * @throws NoSuchElementException si el árbol es vacío.
+     */
+    @Override public VerticeArbolBinario<T> raiz() {
+	if (elementos == 0)
+	    throw new NoSuchElementException("Raiz nula.");
+	return new VerticeArreglo(0);
+    }
+
+    /**
+     * Regresa el vértice que contiene el último elemento agregado al árbol;
+     * es decir, el último elemento en orden BFS.
+     * @return el vértice que contiene el último elemento agregado al árbol, o
+     *         <tt>null</tt> si el árbol es vacío.
+     */
+    @Override public VerticeArbolBinario<T> getUltimoVerticeAgregado() {
+	return elementos == 0 ? null : new VerticeArreglo(elementos - 1);
     }
 
-    private Vertice minimoEnSubarbol(Vertice vertice) {
-	if (vertice == null)
-	    return null;
-	if (vertice.izquierdo == null)
-	    return vertice;
-	else
-	    return minimoEnSubarbol(vertice.izquierdo);
+    /**
+     * Nos dice si el árbol es vacío.
+     * @return <code>true</code> si el árbol es vacío, <code>false</code> en
+     *         otro caso.
+     */
+    @Override public boolean esVacio() {
+	return elementos == 0;
     }
 
-    private Vertice maximoEnSubarbol(Vertice vertice) {
-	if (vertice == null)
-	    return null;
-	if (vertice.derecho == null)
-	    return vertice;
-	else
-	    return maximoEnSubarbol(vertice.derecho);
+    /**
+     * Regresa la profundidad del árbol. Como el árbol es completo, es el
+     * logaritmo base 2 de su número de elementos.
+     * @return la profundidad del árbol.
+     */
+    @Override public int profundidad() {
+	if (elementos == 0)
+	    return -1;
+	return 31 - Integer.numberOfLeadingZeros(elementos);
+    }
+
+    /**
+     * Compara el árbol con un objeto. Dos árboles binarios completos son
+     * iguales si tienen los mismos elementos en el mismo orden BFS.
+     * @param o el objeto con el que queremos comparar el árbol.
+     * @return <code>true</code> si el objeto recibido es un árbol binario
+     *         completo igual al árbol; <code>false</code> en otro caso.
+     */
+    @Override public boolean equals(Object o) {
+        if (o == null)
+            return false;
+        if (getClass() != o.getClass())
+            return false;
+        @SuppressWarnings("unchecked") ArbolBinarioCompleto<T> arbol =
+            (ArbolBinarioCompleto<T>)o;
+	if (elementos != arbol.elementos)
+	    return false;
+	for (int i = 0; i < elementos; i++)
+	    if (!arreglo[i].equals(arbol.arreglo[i]))
+		return false;
+	return true;
+    }
+
+    /**
+     * Regresa un picadillo del árbol, calculado con sus elementos en orden
+     * BFS, de forma consistente con {@link #equals}.
+     * @return un picadillo del árbol.
+     */
+    @Override public int hashCode() {
+	int h = 1;
+	for (int i = 0; i < elementos; i++)
+	    h = 31 * h + arreglo[i].hashCode();
+	return h;
+    }
+
+    /**
+     * Regresa un iterador para iterar el árbol. El árbol se itera en orden BFS,
+     * que es el orden del arreglo.
+     * @return un iterador para iterar el árbol.
+     */
+    @Override public Iterator<T> iterator() {
+        return new Iterador();
     }
 }
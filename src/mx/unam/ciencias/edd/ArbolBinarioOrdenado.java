@@ -1,6 +1,7 @@
 package mx.unam.ciencias.edd;
 
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 /**
  * <p>Clase para árboles binarios ordenados. Los árboles son genéricos, pero
@@ -17,43 +18,164 @@ import java.util.Iterator;
 public class ArbolBinarioOrdenado<T extends Comparable<T>>
     extends ArbolBinario<T> {
 
-    /* Clase privada para iteradores de árboles binarios ordenados. */
-    private class Iterador implements Iterator<T> {
+    /**
+     * <p>Clase para cursores de árboles binarios ordenados. Un cursor recorre
+     * el árbol en orden o en orden inverso, y puede detenerse después de un
+     * número dado de elementos.</p>
+     *
+     * <p>El cursor no usa una pila: pasa de cada vértice a su sucesor
+     * siguiendo a los hijos y al padre de los vértices, así que ocupa espacio
+     * <i>O</i>(1) y {@link #next} no crea objetos. Recorrer todo el árbol
+     * toma tiempo <i>O</i>(<i>n</i>), porque cada arista se recorre a lo más
+     * dos veces. Un mismo cursor puede reiniciarse con {@link #reinicia} para
+     * volver a recorrer el árbol sin crear otro.</p>
+     *
+     * <p>Un cursor en orden puede estar acotado por un elemento inicial y uno
+     * final. En ese caso el primer vértice se encuentra bajando por un solo
+     * camino del árbol, y el recorrido termina en cuanto pasa la cota final,
+     * así que recorrer <i>k</i> elementos toma tiempo <i>O</i>(<i>h</i> +
+     * <i>k</i>), donde <i>h</i> es la altura del árbol.</p>
+     *
+     * <p>Como cualquier iterador, el cursor deja de ser válido si el árbol se
+     * modifica mientras se recorre.</p>
+     */
+    public class Cursor implements Iterator<T> {
 
-        /* Pila para emular la pila de ejecución. */
-        private Pila<ArbolBinario<T>.Vertice> pila;
+        /* El vértice con el siguiente elemento. */
+        private Vertice siguiente;
+        /* Si el recorrido es de menor a mayor. */
+        private boolean ascendente;
+        /* Cuántos elementos regresa el cursor en cada recorrido. */
+        private int limite;
+        /* Cuántos elementos faltan por regresar. */
+        private int restantes;
+        /* La cota inicial del recorrido en orden, o null si no hay. */
+        private T desde;
+        /* Si la cota inicial se incluye en el recorrido. */
+        private boolean incluyeDesde;
+        /* La cota final del recorrido en orden, o null si no hay. */
+        private T hasta;
+        /* Si la cota final se incluye en el recorrido. */
+        private boolean incluyeHasta;
 
-        /* Construye un iterador con el vértice recibido. */
-        public Iterador() {
-	    pila = new Pila<>();
-	    meteIzq(raiz);
-	}
+        /* Construye un cursor en la dirección recibida, que regresa a lo más
+         * el número de elementos recibido. */
+        private Cursor(boolean ascendente, int limite) {
+            this.ascendente = ascendente;
+            this.limite = limite;
+            reinicia();
+        }
 
-	/* Mete los vertice desde la raiz y todos sus hijos izquierdos en 
-	 * la pila */
-	private void meteIzq(ArbolBinario<T>.Vertice vertice) {
-	    if(vertice == null)
-                return;
-            pila.mete(vertice);
-            meteIzq(vertice.izquierdo);
-	}
+        /* Construye un cursor en orden acotado por los elementos recibidos;
+         * una cota nula quiere decir que ese lado no está acotado. */
+        private Cursor(T desde, boolean incluyeDesde,
+                       T hasta, boolean incluyeHasta) {
+            this.ascendente = true;
+            this.limite = Integer.MAX_VALUE;
+            this.desde = desde;
+            this.incluyeDesde = incluyeDesde;
+            this.hasta = hasta;
+            this.incluyeHasta = incluyeHasta;
+            reinicia();
+        }
+
+        /**
+         * Regresa el cursor al primer elemento de su recorrido, sin crear
+         * objetos nuevos.
+         * @return el mismo cursor, para poder recorrerlo otra vez.
+         */
+        public Cursor reinicia() {
+            restantes = limite;
+            siguiente = desde == null ? extremo(raiz) : primero();
+            return this;
+        }
 
-        /* Nos dice si hay un siguiente elemento. */
+        /**
+         * Nos dice si hay un siguiente elemento.
+         * @return <code>true</code> si hay un siguiente elemento,
+         *         <code>false</code> en otro caso.
+         */
         @Override public boolean hasNext() {
-            return !pila.esVacia();
+            if (restantes <= 0 || siguiente == null)
+                return false;
+            if (hasta == null)
+                return true;
+            int c = siguiente.elemento.compareTo(hasta);
+            return incluyeHasta ? c <= 0 : c < 0;
         }
 
-        /* Regresa el siguiente elemento del árbol en orden. */
+        /**
+         * Regresa el siguiente elemento del recorrido.
+         * @return el siguiente elemento del recorrido.
+         * @throws NoSuchElementException si no hay un siguiente elemento.
+         */
         @Override public T next() {
-	    ArbolBinario<T>.Vertice vertice = pila.saca();
-	    meteIzq(vertice.derecho);
-	    return vertice.elemento;
+            if (!hasNext())
+                throw new NoSuchElementException();
+            Vertice vertice = siguiente;
+            siguiente = sucesor(vertice);
+            restantes--;
+            return vertice.elemento;
         }
 
-        /* No lo implementamos: siempre lanza una excepción. */
+        /**
+         * No lo implementamos: siempre lanza una excepción.
+         * @throws UnsupportedOperationException siempre.
+         */
         @Override public void remove() {
             throw new UnsupportedOperationException();
         }
+
+        /* Regresa el primer vértice del subárbol en la dirección del
+         * recorrido: el mínimo si es en orden, el máximo si es en orden
+         * inverso. */
+        private Vertice extremo(Vertice vertice) {
+            if (vertice == null)
+                return null;
+            Vertice hijo = ascendente ? vertice.izquierdo : vertice.derecho;
+            while (hijo != null) {
+                vertice = hijo;
+                hijo = ascendente ? vertice.izquierdo : vertice.derecho;
+            }
+            return vertice;
+        }
+
+        /* Regresa el primer vértice en orden que no es menor que la cota
+         * inicial (o que es mayor, si la cota no se incluye). Los vértices
+         * a la izquierda de un vértice menor que la cota también son menores,
+         * y los de la derecha de un vértice que ya cumple lo siguen en orden,
+         * así que basta bajar por un solo camino. */
+        private Vertice primero() {
+            Vertice primero = null;
+            Vertice vertice = raiz;
+            while (vertice != null) {
+                int c = vertice.elemento.compareTo(desde);
+                if (incluyeDesde ? c >= 0 : c > 0) {
+                    primero = vertice;
+                    vertice = vertice.izquierdo;
+                } else {
+                    vertice = vertice.derecho;
+                }
+            }
+            return primero;
+        }
+
+        /* Regresa el vértice que sigue al recibido en la dirección del
+         * recorrido. Si tiene hijo hacia adelante, es el extremo de ese
+         * subárbol; si no, es el primer ancestro al que se llega subiendo
+         * desde atrás. */
+        private Vertice sucesor(Vertice vertice) {
+            Vertice adelante = ascendente ? vertice.derecho : vertice.izquierdo;
+            if (adelante != null)
+                return extremo(adelante);
+            Vertice padre = vertice.padre;
+            while (padre != null &&
+                   vertice == (ascendente ? padre.derecho : padre.izquierdo)) {
+                vertice = padre;
+                padre = vertice.padre;
+            }
+            return padre;
+        }
     }
 
     /**
@@ -74,41 +196,77 @@ public class ArbolBinarioOrdenado<T extends Comparable<T>>
         super(coleccion);
     }
 
+    /**
+     * Copia los elementos de una lista a un arreglo, verificando que estén
+     * ordenados. Método auxiliar para los constructores en bloque de las
+     * subclases.
+     * @param <T> el tipo de los elementos.
+     * @param lista la lista ordenada.
+     * @return un arreglo con los elementos de la lista.
+     * @throws IllegalArgumentException si la lista tiene elementos nulos o no
+     *         está ordenada.
+     */
+    protected static <T extends Comparable<T>> T[] arregloOrdenado(Lista<T> lista) {
+        @SuppressWarnings("unchecked") T[] arreglo =
+            (T[])new Comparable[lista.getLongitud()];
+        int i = 0;
+        for (T elemento : lista)
+            arreglo[i++] = elemento;
+        verificaOrden(arreglo);
+        return arreglo;
+    }
+
+    /**
+     * Verifica que los elementos de un arreglo no sean nulos y estén
+     * ordenados. Método auxiliar para los constructores en bloque de las
+     * subclases.
+     * @param <T> el tipo de los elementos.
+     * @param arreglo el arreglo a verificar.
+     * @throws IllegalArgumentException si el arreglo tiene elementos nulos o
+     *         no está ordenado.
+     */
+    protected static <T extends Comparable<T>> void verificaOrden(T[] arreglo) {
+        for (int i = 0; i < arreglo.length; i++) {
+            if (arreglo[i] == null)
+                throw new IllegalArgumentException("Elemento nulo.");
+            if (i > 0 && arreglo[i-1].compareTo(arreglo[i]) > 0)
+                throw new IllegalArgumentException("Elementos desordenados.");
+        }
+    }
+
     /**
      * Agrega un nuevo elemento al árbol. El árbol conserva su orden in-order.
+     * El lugar del elemento se busca con un ciclo, así que un árbol
+     * degenerado no agota la pila de ejecución.
      * @param elemento el elemento a agregar.
      */
     @Override public void agrega(T elemento) {
 	if (elemento == null)
 	    throw new IllegalArgumentException("Elemento nulo.");
+	Vertice nuevo = nuevoVertice(elemento);
 	if (raiz == null) {
-	    raiz = nuevoVertice(elemento);
-	    ultimoAgregado = raiz;
-	    elementos++;
-	}
-	else
-	    agrega(raiz, elemento);
-    }
-
-    private void agrega(Vertice vertice, T elemento) {
-	if (vertice.elemento.compareTo(elemento) >= 0) 
-	    if (vertice.izquierdo == null) {
-		vertice.izquierdo = nuevoVertice(elemento);
-		vertice.izquierdo.padre = vertice;
-		ultimoAgregado = vertice.izquierdo;
-		elementos++;
-	    }
-	    else
-		agrega(vertice.izquierdo, elemento);
-	else
-	    if (vertice.derecho == null) {
-		vertice.derecho = nuevoVertice(elemento);
-		vertice.derecho.padre = vertice;
-		ultimoAgregado = vertice.derecho;
-		elementos++;
+	    raiz = nuevo;
+	} else {
+	    Vertice vertice = raiz;
+	    while (true) {
+		if (vertice.elemento.compareTo(elemento) >= 0) {
+		    if (vertice.izquierdo == null) {
+			vertice.izquierdo = nuevo;
+			break;
+		    }
+		    vertice = vertice.izquierdo;
+		} else {
+		    if (vertice.derecho == null) {
+			vertice.derecho = nuevo;
+			break;
+		    }
+		    vertice = vertice.derecho;
+		}
 	    }
-	    else
-		agrega(vertice.derecho, elemento);
+	    nuevo.padre = vertice;
+	}
+	ultimoAgregado = nuevo;
+	elementos++;
     }
 
     /**
@@ -126,46 +284,34 @@ public class ArbolBinarioOrdenado<T extends Comparable<T>>
 	
     }
 
+    /* Elimina el vértice sin recursión. Si tiene izquierdo, su elemento se
+     * reemplaza por el de su predecesor (el máximo de su subárbol izquierdo),
+     * que no tiene derecho, y es el predecesor el que se saca del árbol. Un
+     * vértice con a lo más un hijo se saca subiendo a su hijo a su lugar. */
     private void elimina(Vertice vertice) {
 	Vertice anterior = maximoEnSubarbol(vertice.izquierdo);
-	if(anterior == null) {
-            if(vertice.derecho == null) {
-                if(vertice.padre == null) {
-                    raiz = null;
-		    ultimoAgregado = null;
-		}
-                else
-                    if(vertice.padre.izquierdo != null &&
-		       vertice.padre.izquierdo == vertice)
-                        vertice.padre.izquierdo = null;
-                    else
-                        vertice.padre.derecho = null;
-            }
-	    else { 
-		if(vertice.padre == null){ 
-		    raiz=vertice.derecho; 
-		    vertice.derecho.padre=null; 
-		}
-		else { 
-		    vertice.derecho.padre=vertice.padre; 
-		    if(vertice.padre.izquierdo!=null &&
-		       vertice.padre.izquierdo == vertice) 
-			vertice.padre.izquierdo = vertice.derecho; 
-		    else 
-			vertice.padre.derecho = vertice.derecho; 
-                } 
-            } 
-        }
-	else {  
-	    T elemento = vertice.elemento;
+	if (anterior != null) {
 	    vertice.elemento = anterior.elemento;
-	    anterior.elemento = elemento;
-	    elimina(anterior); 
-        } 
+	    vertice = anterior;
+	}
+	Vertice hijo = vertice.izquierdo != null ?
+	    vertice.izquierdo : vertice.derecho;
+	if (hijo != null)
+	    hijo.padre = vertice.padre;
+	if (vertice.padre == null) {
+	    raiz = hijo;
+	    if (raiz == null)
+		ultimoAgregado = null;
+	} else if (vertice.padre.izquierdo == vertice) {
+	    vertice.padre.izquierdo = hijo;
+	} else {
+	    vertice.padre.derecho = hijo;
+	}
     }
 
     /**
-     * Busca recursivamente un elemento, a partir del vértice recibido.
+     * Busca un elemento a partir del vértice recibido, bajando por un solo
+     * camino con un ciclo.
      * @param vertice el vértice a partir del cuál comenzar la búsqueda. Puede
      *                ser <code>null</code>.
      * @param elemento el elemento a buscar a partir del vértice.
@@ -173,16 +319,17 @@ public class ArbolBinarioOrdenado<T extends Comparable<T>>
      *         el árbol; <code>null</code> en otro caso.
      */
     @Override protected Vertice busca(Vertice vertice, T elemento) {
-	if (vertice == null)
-	    return null;
 	if (elemento == null)
 	    return null;
-	if (vertice.elemento.equals(elemento))
-	    return vertice;
-	if (elemento.compareTo(vertice.elemento) <= 0)
-	    return busca(vertice.izquierdo, elemento);
-	else
-	    return busca(vertice.derecho, elemento);
+	while (vertice != null) {
+	    if (vertice.elemento.equals(elemento))
+		return vertice;
+	    if (elemento.compareTo(vertice.elemento) <= 0)
+		vertice = vertice.izquierdo;
+	    else
+		vertice = vertice.derecho;
+	}
+	return null;
     }
 
     /**
@@ -195,9 +342,9 @@ public class ArbolBinarioOrdenado<T extends Comparable<T>>
     protected Vertice maximoEnSubarbol(Vertice vertice) {
 	if (vertice == null)
 	    return null;
-	if (vertice.derecho == null)
-	    return vertice;
-	return maximoEnSubarbol(vertice.derecho);
+	while (vertice.derecho != null)
+	    vertice = vertice.derecho;
+	return vertice;
     }
 
     /**
@@ -205,7 +352,119 @@ public class ArbolBinarioOrdenado<T extends Comparable<T>>
      * @return un iterador para iterar el árbol.
      */
     @Override public Iterator<T> iterator() {
-        return new Iterador();
+        return new Cursor(true, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Regresa un iterador para iterar el árbol en orden inverso, del mayor
+     * al menor elemento.
+     * @return un iterador para iterar el árbol en orden inverso.
+     */
+    public Iterator<T> iteradorDescendente() {
+        return new Cursor(false, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Regresa un cursor para recorrer el árbol en orden, que puede
+     * reiniciarse con {@link Cursor#reinicia} para recorrerlo varias veces
+     * sin crear objetos.
+     * @param ascendente <code>true</code> para recorrer del menor al mayor
+     *                   elemento, <code>false</code> para recorrer del mayor
+     *                   al menor.
+     * @return un cursor para recorrer el árbol.
+     */
+    public Cursor cursor(boolean ascendente) {
+        return new Cursor(ascendente, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Regresa una vista de los elementos del árbol entre dos elementos,
+     * ambos incluidos, del menor al mayor. La vista no copia los elementos:
+     * cada vez que se recorre baja por el árbol hasta el primer elemento del
+     * rango, y se detiene después del último, así que recorrer <i>k</i>
+     * elementos toma tiempo <i>O</i>(<i>h</i> + <i>k</i>), donde <i>h</i> es
+     * la altura del árbol.
+     * @param desde el menor elemento del rango.
+     * @param hasta el mayor elemento del rango.
+     * @return una vista de los elementos en el rango.
+     * @throws IllegalArgumentException si alguna cota es <code>null</code>.
+     */
+    public Iterable<T> rango(T desde, T hasta) {
+        return rango(desde, true, hasta, true);
+    }
+
+    /**
+     * Regresa una vista de los elementos del árbol entre dos elementos, del
+     * menor al mayor, incluyendo o no a las cotas. Se comporta como {@link
+     * #rango(Comparable,Comparable)}.
+     * @param desde la cota inferior del rango.
+     * @param incluyeDesde si los elementos iguales a la cota inferior están
+     *                     en el rango.
+     * @param hasta la cota superior del rango.
+     * @param incluyeHasta si los elementos iguales a la cota superior están
+     *                     en el rango.
+     * @return una vista de los elementos en el rango.
+     * @throws IllegalArgumentException si alguna cota es <code>null</code>.
+     */
+    public Iterable<T> rango(T desde, boolean incluyeDesde,
+                             T hasta, boolean incluyeHasta) {
+        if (desde == null || hasta == null)
+            throw new IllegalArgumentException("Cota nula.");
+        return () -> new Cursor(desde, incluyeDesde, hasta, incluyeHasta);
+    }
+
+    /**
+     * Regresa una vista de los elementos del árbol mayores que uno dado, del
+     * menor al mayor. Se comporta como {@link
+     * #rango(Comparable,Comparable)}, pero sin cota superior.
+     * @param elemento la cota inferior.
+     * @param incluye si los elementos iguales a la cota están en la vista.
+     * @return una vista de los elementos mayores que la cota.
+     * @throws IllegalArgumentException si la cota es <code>null</code>.
+     */
+    public Iterable<T> desde(T elemento, boolean incluye) {
+        if (elemento == null)
+            throw new IllegalArgumentException("Cota nula.");
+        return () -> new Cursor(elemento, incluye, null, false);
+    }
+
+    /**
+     * Regresa una vista de los elementos del árbol menores que uno dado, del
+     * menor al mayor. Se comporta como {@link
+     * #rango(Comparable,Comparable)}, pero sin cota inferior.
+     * @param elemento la cota superior.
+     * @param incluye si los elementos iguales a la cota están en la vista.
+     * @return una vista de los elementos menores que la cota.
+     * @throws IllegalArgumentException si la cota es <code>null</code>.
+     */
+    public Iterable<T> hasta(T elemento, boolean incluye) {
+        if (elemento == null)
+            throw new IllegalArgumentException("Cota nula.");
+        return () -> new Cursor(null, false, elemento, incluye);
+    }
+
+    /**
+     * Regresa un iterable con los primeros <i>k</i> elementos del árbol, del
+     * menor al mayor. El recorrido se detiene después del <i>k</i>-ésimo
+     * elemento, así que toma tiempo <i>O</i>(<i>h</i> + <i>k</i>), donde
+     * <i>h</i> es la altura del árbol.
+     * @param k cuántos elementos recorrer.
+     * @return un iterable con los primeros <i>k</i> elementos.
+     */
+    public Iterable<T> primeros(int k) {
+        return () -> new Cursor(true, k);
+    }
+
+    /**
+     * Regresa un iterable con los últimos <i>k</i> elementos del árbol, del
+     * mayor al menor. El recorrido se detiene después del <i>k</i>-ésimo
+     * elemento, así que toma tiempo <i>O</i>(<i>h</i> + <i>k</i>), donde
+     * <i>h</i> es la altura del árbol.
+     * @param k cuántos elementos recorrer.
+     * @return un iterable con los últimos <i>k</i> elementos.
+     */
+    public Iterable<T> ultimos(int k) {
+        return () -> new Cursor(false, k);
     }
 
     /**
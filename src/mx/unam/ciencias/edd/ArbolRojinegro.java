@@ -71,6 +71,66 @@ public class ArbolRojinegro<T extends Comparable<T>>
 		    }
 	}
 	
+    /**
+     * Construye un árbol rojinegro con los elementos de una lista ordenada,
+     * en tiempo <i>O</i>(<i>n</i>). El elemento de en medio queda en la raíz
+     * y cada mitad se construye igual, así que todas las hojas quedan en los
+     * dos últimos niveles; todos los vértices son NEGROS salvo los del último
+     * nivel cuando no está lleno, que son ROJOS.
+     * @param <T> el tipo de los elementos.
+     * @param lista la lista ordenada.
+     * @return un árbol rojinegro con los elementos de la lista.
+     * @throws IllegalArgumentException si la lista tiene elementos nulos o no
+     *         está ordenada.
+     */
+    public static <T extends Comparable<T>> ArbolRojinegro<T> deOrdenados(Lista<T> lista) {
+        return deArreglo(arregloOrdenado(lista));
+    }
+
+    /**
+     * Construye un árbol rojinegro con los elementos de un arreglo ordenado,
+     * en tiempo <i>O</i>(<i>n</i>).
+     * @param <T> el tipo de los elementos.
+     * @param arreglo el arreglo ordenado.
+     * @return un árbol rojinegro con los elementos del arreglo.
+     * @throws IllegalArgumentException si el arreglo tiene elementos nulos o
+     *         no está ordenado.
+     */
+    public static <T extends Comparable<T>> ArbolRojinegro<T> deOrdenados(T[] arreglo) {
+        verificaOrden(arreglo);
+        return deArreglo(arreglo);
+    }
+
+    /* Construye el árbol con un arreglo ya verificado. */
+    private static <T extends Comparable<T>> ArbolRojinegro<T> deArreglo(T[] arreglo) {
+        ArbolRojinegro<T> arbol = new ArbolRojinegro<T>();
+        int n = arreglo.length;
+        /* El último nivel; sus vértices son rojos si no está lleno. */
+        int ultimo = n == 0 ? 0 : 31 - Integer.numberOfLeadingZeros(n);
+        boolean lleno = ((n + 1) & n) == 0;
+        arbol.raiz = arbol.construye(arreglo, 0, n, 0, lleno ? -1 : ultimo);
+        arbol.elementos = n;
+        return arbol;
+    }
+
+    /* Construye el subárbol con los elementos en [i, j) del arreglo; los
+     * vértices con la profundidad roja son ROJOS. */
+    private VerticeRojinegro construye(T[] arreglo, int i, int j,
+                                       int profundidad, int roja) {
+        if (i >= j)
+            return null;
+        int m = (i + j) >>> 1;
+        VerticeRojinegro vertice = verticeRojinegro(nuevoVertice(arreglo[m]));
+        vertice.color = profundidad == roja ? Color.ROJO : Color.NEGRO;
+        vertice.izquierdo = construye(arreglo, i, m, profundidad + 1, roja);
+        vertice.derecho = construye(arreglo, m + 1, j, profundidad + 1, roja);
+        if (vertice.izquierdo != null)
+            vertice.izquierdo.padre = vertice;
+        if (vertice.derecho != null)
+            vertice.derecho.padre = vertice;
+        return vertice;
+    }
+
 	/**
 	 * Construye un nuevo vértice, usando una instancia de {@link
 	 * VerticeRojinegro}.
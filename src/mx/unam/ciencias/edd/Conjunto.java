@@ -10,7 +10,7 @@ import java.util.Iterator;
 public class Conjunto<T> implements Coleccion<T> {
 
     /* El conjunto de elementos. */
-    private Diccionario<T, T> conjunto;
+    private Mapa<T, T> conjunto;
 
     /**
      * Crea un nuevo conjunto.
@@ -28,7 +28,8 @@ public class Conjunto<T> implements Coleccion<T> {
     }
 
     /**
-     * Agrega un elemento al conjunto.
+     * Agrega un elemento al conjunto. Si el conjunto ya tenía un elemento
+     * igual, se queda con el que tenía; el elemento se busca una sola vez.
      * @param elemento el elemento que queremos agregar al conjunto.
      * @throws IllegalArgumentException si el elemento es <code>null</code>.
      */
@@ -36,7 +37,7 @@ public class Conjunto<T> implements Coleccion<T> {
         if (elemento == null) {
             throw new IllegalArgumentException();
         }
-        this.conjunto.agrega(elemento, elemento);
+        this.conjunto.getOAgrega(elemento, (T e) -> e);
     }
 
     /**
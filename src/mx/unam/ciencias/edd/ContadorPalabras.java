@@ -0,0 +1,331 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Clase para contar palabras. Es un diccionario especializado de cadenas a
+ * enteros: guarda las palabras, sus picadillos y sus cuentas en tres arreglos
+ * paralelos con direccionamiento abierto, como {@link DiccionarioAbierto},
+ * pero las cuentas son <code>int</code> y no hay que crear ni desenvolver
+ * ningún objeto para sumarles uno. Además las palabras se pueden buscar
+ * directamente en un arreglo de caracteres; la cadena sólo se crea la primera
+ * vez que aparece la palabra.
+ */
+public class ContadorPalabras implements Iterable<String> {
+
+    /**
+     * Interfaz para recorrer las palabras con sus cuentas.
+     */
+    @FunctionalInterface
+    public interface Accion {
+
+        /**
+         * Actúa sobre una palabra y su cuenta.
+         * @param palabra la palabra.
+         * @param cuenta cuántas veces se contó la palabra.
+         */
+        public void actua(String palabra, int cuenta);
+    }
+
+    /* Clase privada para iteradores de contadores. */
+    private class Iterador implements Iterator<String> {
+
+        /* La siguiente posición ocupada. */
+        private int indice;
+
+        /* Construye un nuevo iterador en la primera posición ocupada. */
+        public Iterador() {
+            this.indice = SondeoLineal.siguienteOcupada(palabras, 0);
+        }
+
+        /* Nos dice si hay un siguiente elemento. */
+        @Override public boolean hasNext() {
+            return indice < palabras.length;
+        }
+
+        /* Regresa el siguiente elemento. */
+        @Override public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String palabra = palabras[indice];
+            indice = SondeoLineal.siguienteOcupada(palabras, indice + 1);
+            return palabra;
+        }
+
+        /* No lo implementamos: siempre lanza una excepción. */
+        @Override public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /** Máxima carga permitida por el contador. */
+    public static final double MAXIMA_CARGA = SondeoLineal.MAXIMA_CARGA;
+
+    /* Las palabras; null indica una posición libre. */
+    private String[] palabras;
+    /* Los picadillos de las palabras. */
+    private int[] picadillos;
+    /* Las cuentas, en la misma posición que su palabra. */
+    private int[] cuentas;
+    /* Número de palabras distintas. */
+    private int elementos;
+
+    /**
+     * Construye un contador vacío.
+     */
+    public ContadorPalabras() {
+        this.inicializa(SondeoLineal.tamano(0));
+    }
+
+    /* Crea los arreglos vacíos con n posiciones. */
+    private void inicializa(int n) {
+        this.palabras = new String[n];
+        this.picadillos = new int[n];
+        this.cuentas = new int[n];
+    }
+
+    /* Calcula el picadillo mezclado de la palabra. */
+    private static int picadillo(String palabra) {
+        return SondeoLineal.mezcla(palabra.hashCode());
+    }
+
+    /* Regresa la posición de la palabra, o la posición libre donde tendría
+     * que ir. */
+    private int posicion(String palabra, int h) {
+        return SondeoLineal.posicion(palabras, picadillos, palabra, h);
+    }
+
+    /* Regresa la posición de la palabra en los primeros caracteres del
+     * arreglo, o la posición libre donde tendría que ir. */
+    private int posicion(char[] palabra, int longitud, int h) {
+        int i = h & (palabras.length - 1);
+        while (palabras[i] != null) {
+            if (picadillos[i] == h && iguales(palabras[i], palabra, longitud)) {
+                return i;
+            }
+            i = SondeoLineal.siguiente(palabras, i);
+        }
+        return i;
+    }
+
+    /* Nos dice si la cadena tiene los mismos caracteres que el arreglo. */
+    private static boolean iguales(String s, char[] palabra, int longitud) {
+        if (s.length() != longitud) {
+            return false;
+        }
+        for (int k = 0; k < longitud; k++) {
+            if (s.charAt(k) != palabra[k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /* Pone la palabra en la posición libre i, y crece si es necesario. Regresa
+     * la posición final de la palabra. */
+    private int ocupa(int i, String palabra, int h) {
+        palabras[i] = palabra;
+        picadillos[i] = h;
+        if (SondeoLineal.llena(++this.elementos, palabras)) {
+            this.crece();
+            i = this.posicion(palabra, h);
+        }
+        return i;
+    }
+
+    /* Duplica el tamaño de los arreglos y reacomoda todas las palabras. */
+    private void crece() {
+        String[] palabras = this.palabras;
+        int[] picadillos = this.picadillos, cuentas = this.cuentas;
+        this.inicializa(palabras.length << 1);
+        for (int j = 0; j < palabras.length; j++) {
+            if (palabras[j] != null) {
+                int i = SondeoLineal.libre(this.palabras, picadillos[j]);
+                this.palabras[i] = palabras[j];
+                this.picadillos[i] = picadillos[j];
+                this.cuentas[i] = cuentas[j];
+            }
+        }
+    }
+
+    /**
+     * Suma uno a la cuenta de la palabra.
+     * @param palabra la palabra a contar.
+     * @return la nueva cuenta de la palabra.
+     * @throws IllegalArgumentException si la palabra es nula.
+     */
+    public int incrementa(String palabra) {
+        return this.suma(palabra, 1);
+    }
+
+    /**
+     * Suma uno a la cuenta de la palabra formada por los primeros caracteres
+     * del arreglo. El picadillo se calcula igual que el de {@link String},
+     * así que la cadena de la palabra sólo se crea si no estaba en el
+     * contador; el arreglo se puede reutilizar después.
+     * @param palabra arreglo con los caracteres de la palabra.
+     * @param longitud número de caracteres de la palabra.
+     * @return la nueva cuenta de la palabra.
+     * @throws IllegalArgumentException si el arreglo es nulo o la longitud
+     *         no es válida.
+     */
+    public int incrementa(char[] palabra, int longitud) {
+        if (palabra == null || longitud < 0 || longitud > palabra.length) {
+            throw new IllegalArgumentException();
+        }
+        int h = 0;
+        for (int k = 0; k < longitud; k++) {
+            h = 31 * h + palabra[k];
+        }
+        h = SondeoLineal.mezcla(h);
+        int i = this.posicion(palabra, longitud, h);
+        if (palabras[i] == null) {
+            i = this.ocupa(i, new String(palabra, 0, longitud), h);
+        }
+        return ++cuentas[i];
+    }
+
+    /**
+     * Suma una cantidad a la cuenta de la palabra.
+     * @param palabra la palabra a contar.
+     * @param cantidad lo que se le suma a la cuenta.
+     * @return la nueva cuenta de la palabra.
+     * @throws IllegalArgumentException si la palabra es nula.
+     */
+    public int suma(String palabra, int cantidad) {
+        if (palabra == null) {
+            throw new IllegalArgumentException();
+        }
+        int h = picadillo(palabra);
+        int i = this.posicion(palabra, h);
+        if (palabras[i] == null) {
+            i = this.ocupa(i, palabra, h);
+        }
+        return cuentas[i] += cantidad;
+    }
+
+    /**
+     * Suma al contador todas las cuentas de otro contador.
+     * @param contador el contador a sumar.
+     */
+    public void suma(ContadorPalabras contador) {
+        for (int i = 0; i < contador.palabras.length; i++) {
+            if (contador.palabras[i] != null) {
+                this.suma(contador.palabras[i], contador.cuentas[i]);
+            }
+        }
+    }
+
+    /**
+     * Regresa la cuenta de la palabra.
+     * @param palabra la palabra.
+     * @return cuántas veces se contó la palabra; 0 si no está en el
+     *         contador.
+     */
+    public int get(String palabra) {
+        if (palabra == null) {
+            return 0;
+        }
+        return cuentas[this.posicion(palabra, picadillo(palabra))];
+    }
+
+    /**
+     * Nos dice si una palabra está en el contador.
+     * @param palabra la palabra que queremos ver si está en el contador.
+     * @return <tt>true</tt> si la palabra está en el contador,
+     *         <tt>false</tt> en otro caso.
+     */
+    public boolean contiene(String palabra) {
+        return palabra != null &&
+            palabras[this.posicion(palabra, picadillo(palabra))] != null;
+    }
+
+    /**
+     * Regresa el número de palabras distintas en el contador.
+     * @return el número de palabras distintas en el contador.
+     */
+    public int getElementos() {
+        return this.elementos;
+    }
+
+    /**
+     * Nos dice si el contador es vacío.
+     * @return <code>true</code> si el contador es vacío, <code>false</code>
+     *         en otro caso.
+     */
+    public boolean esVacio() {
+        return this.elementos == 0;
+    }
+
+    /**
+     * Actúa sobre cada palabra con su cuenta, sin ningún orden específico.
+     * @param accion la acción a realizar.
+     */
+    public void paraCada(Accion accion) {
+        for (int i = 0; i < palabras.length; i++) {
+            if (palabras[i] != null) {
+                accion.actua(palabras[i], cuentas[i]);
+            }
+        }
+    }
+
+    /**
+     * Actúa sobre cada palabra con su cuenta, de la más repetida a la menos
+     * repetida; las palabras con la misma cuenta van en orden alfabético. El
+     * orden se calcula con <i>MergeSort</i> sobre las posiciones de las
+     * palabras, en tiempo <i>O</i>(<i>n</i> log <i>n</i>).
+     * @param accion la acción a realizar.
+     */
+    public void paraCadaOrdenado(Accion accion) {
+        int[] orden = new int[elementos];
+        for (int i = 0, j = 0; j < elementos; i++) {
+            if (palabras[i] != null) {
+                orden[j++] = i;
+            }
+        }
+        int[] auxiliar = new int[elementos];
+        for (int ancho = 1; ancho < elementos; ancho <<= 1) {
+            for (int a = 0; a < elementos - ancho; a += ancho << 1) {
+                mezcla(orden, auxiliar, a, a + ancho,
+                       Math.min(a + (ancho << 1), elementos));
+            }
+        }
+        for (int i : orden) {
+            accion.actua(palabras[i], cuentas[i]);
+        }
+    }
+
+    /* Mezcla los pedazos ordenados [a, m) y [m, b) del arreglo de
+     * posiciones. */
+    private void mezcla(int[] orden, int[] auxiliar, int a, int m, int b) {
+        System.arraycopy(orden, a, auxiliar, a, b - a);
+        int i = a, j = m;
+        for (int k = a; k < b; k++) {
+            if (j == b || (i < m && !vaDespues(auxiliar[i], auxiliar[j]))) {
+                orden[k] = auxiliar[i++];
+            } else {
+                orden[k] = auxiliar[j++];
+            }
+        }
+    }
+
+    /* Nos dice si la palabra en la posición i va después de la palabra en
+     * la posición j. */
+    private boolean vaDespues(int i, int j) {
+        if (cuentas[i] != cuentas[j]) {
+            return cuentas[i] < cuentas[j];
+        }
+        return palabras[i].compareTo(palabras[j]) > 0;
+    }
+
+    /**
+     * Regresa un iterador para iterar las palabras del contador, sin ningún
+     * orden específico.
+     * @return un iterador para iterar las palabras.
+     */
+    @Override public Iterator<String> iterator() {
+        return new Iterador();
+    }
+}
@@ -2,6 +2,8 @@ package mx.unam.ciencias.edd;
 
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
 
 /**
  * Clase para diccionarios (<em>hash tables</em>). Un diccionario generaliza el
@@ -9,7 +11,7 @@ import java.util.NoSuchElementException;
  * sea su método para generar picadillos) agregar, eliminar, y buscar valores en
  * tiempo <i>O</i>(1) (amortizado) en cada uno de estos casos.
  */
-public class Diccionario<K, V> implements Iterable<V> {
+public class Diccionario<K, V> implements Mapa<K, V> {
 
     /** Máxima carga permitida por el diccionario. */
     public static final double MAXIMA_CARGA = 0.72;
@@ -29,32 +31,69 @@ public class Diccionario<K, V> implements Iterable<V> {
         }
     }
 
-    /* Clase privada para iteradores de diccionarios. */
+    /* Clase privada para iteradores de diccionarios. Recorre directamente los
+     * nodos de las listas del diccionario, sin copiar nada. Si el diccionario
+     * está creciendo, primero recorre las listas viejas que no se han mudado y
+     * luego el arreglo nuevo. */
     private class Iterador implements Iterator<V> {
 
+        /* El arreglo que estamos recorriendo. */
+        private Lista<Entrada>[] arreglo;
         /* En qué lista estamos. */
         private int indice;
-        /* Iterador auxiliar. */
-        private Iterator<Diccionario<K,V>.Entrada> iterador;
+        /* El nodo con la siguiente entrada. */
+        private Lista<Entrada>.Nodo nodo;
 
-        /* Construye un nuevo iterador, auxiliándose de las listas del
+        /* Construye un nuevo iterador en la primera entrada del
          * diccionario. */
         public Iterador() {
-            Lista<K> llaves = llaves();
-            Lista<Diccionario<K,V>.Entrada> iterador = new Lista<Diccionario<K,V>.Entrada>();
-            for (K llave: llaves) {
-                iterador.agrega(getEntrada(llave));
+            if (viejas != null) {
+                this.arreglo = viejas;
+                this.indice = mudadas - 1;
+            } else {
+                this.arreglo = entradas;
+                this.indice = -1;
             }
-            this.iterador = iterador.iterator();
+            this.siguienteLista();
         }
+
+        /* Mueve el iterador al inicio de la siguiente lista no vacía. */
+        private void siguienteLista() {
+            this.nodo = null;
+            while (this.nodo == null) {
+                if (++this.indice == this.arreglo.length) {
+                    if (this.arreglo == entradas) {
+                        return;
+                    }
+                    this.arreglo = entradas;
+                    this.indice = -1;
+                } else if (this.arreglo[this.indice] != null) {
+                    this.nodo = this.arreglo[this.indice].cabeza;
+                }
+            }
+        }
+
         /* Nos dice si hay un siguiente elemento. */
         public boolean hasNext() {
-            return this.iterador.hasNext();
+            return this.nodo != null;
+        }
+
+        /* Regresa la siguiente entrada. */
+        public Entrada siguienteEntrada() {
+            if (this.nodo == null) {
+                throw new NoSuchElementException();
+            }
+            Entrada e = this.nodo.elemento;
+            this.nodo = this.nodo.siguiente;
+            if (this.nodo == null) {
+                this.siguienteLista();
+            }
+            return e;
         }
 
         /* Regresa el siguiente elemento. */
         public V next() {
-            return this.iterador.next().valor;
+            return this.siguienteEntrada().valor;
         }
 
         /* No lo implementamos: siempre lanza una excepción. */
@@ -65,13 +104,22 @@ public class Diccionario<K, V> implements Iterable<V> {
 
     /* Tamaño mínimo; decidido arbitrariamente a 2^6. */
     private static final int MIN_N = 64;
+    /* Cuántas listas viejas se mudan en cada operación que modifica el
+     * diccionario. Con dos basta para terminar la mudanza antes de volver a
+     * crecer; usamos un poco más para que dure menos. */
+    private static final int MUDANZA = 4;
 
-    /* Máscara para no usar módulo. */
+    /* Máscara para no usar módulo; siempre es una potencia de 2 menos 1. */
     private int mascara;
     /* Picadillo. */
     private Picadillo<K> picadillo;
     /* Nuestro diccionario. */
     private Lista<Entrada>[] entradas;
+    /* Las listas del arreglo anterior mientras se mudan al nuevo; null si el
+     * diccionario no está creciendo. */
+    private Lista<Entrada>[] viejas;
+    /* Las listas viejas con índice menor a éste ya se mudaron. */
+    private int mudadas;
     /* Número de valores*/
     private int elementos;
 
@@ -93,13 +141,14 @@ public class Diccionario<K, V> implements Iterable<V> {
         this.entradas = nuevoArreglo(mascara+1);
     }
 
+    /* Regresa la menor potencia de 2 mayor al doble del tamaño, menos 1. */
     private int calcularMascara(int tam) {
         int m = 1;
         while (m <= tam) {
             m = (m << 1) | 1;
         }
         m = (m << 1) | 1;
-        return m;   
+        return m;
     }
 
     /**
@@ -136,8 +185,87 @@ public class Diccionario<K, V> implements Iterable<V> {
         this.entradas = nuevoArreglo(mascara+1);
     }
 
-    private int aplicarHash(K llave) {
-        return (this.picadillo.picadillo(llave) & this.mascara);
+    /* Busca la llave en una lista, recorriendo sus nodos directamente. */
+    private Entrada buscaEnLista(Lista<Entrada> lista, K llave) {
+        if (lista != null) {
+            for (Lista<Entrada>.Nodo n = lista.cabeza; n != null; n = n.siguiente) {
+                if (n.elemento.llave.equals(llave)) {
+                    return n.elemento;
+                }
+            }
+        }
+        return null;
+    }
+
+    /* Regresa la lista vieja donde todavía puede estar una llave con el
+     * picadillo recibido, o null si no hay. */
+    private Lista<Entrada> listaVieja(int h) {
+        if (this.viejas == null) {
+            return null;
+        }
+        int i = h & (this.viejas.length - 1);
+        return i < this.mudadas ? null : this.viejas[i];
+    }
+
+    /* Busca la entrada de la llave, primero en su lista vieja si todavía no
+     * se muda, y luego en el arreglo actual. Regresa null si no está. */
+    private Entrada buscaEntrada(K llave, int h) {
+        Entrada e = this.buscaEnLista(this.listaVieja(h), llave);
+        if (e == null) {
+            e = this.buscaEnLista(this.entradas[h & this.mascara], llave);
+        }
+        return e;
+    }
+
+    /* Agrega una entrada nueva al arreglo actual. */
+    private void inserta(Entrada entrada, int h) {
+        int i = h & this.mascara;
+        if (this.entradas[i] == null) {
+            this.entradas[i] = new Lista<Entrada>();
+        }
+        this.entradas[i].agrega(entrada);
+    }
+
+    /* Agrega una entrada nueva y hace crecer el diccionario si es necesario. */
+    private void agregaEntrada(Entrada entrada, int h) {
+        this.inserta(entrada, h);
+        this.elementos++;
+        if (this.carga() >= this.MAXIMA_CARGA) {
+            this.crece();
+        }
+    }
+
+    /* Duplica el tamaño del diccionario. Las entradas no se reacomodan todas
+     * de una vez: el arreglo anterior se guarda y cada operación que modifica
+     * el diccionario muda unas cuantas de sus listas al nuevo. */
+    private void crece() {
+        while (this.viejas != null) {
+            this.muda();
+        }
+        this.viejas = this.entradas;
+        this.mudadas = 0;
+        this.mascara = (this.mascara << 1) | 1;
+        this.entradas = this.nuevoArreglo(this.mascara + 1);
+    }
+
+    /* Muda las siguientes listas viejas al arreglo actual. */
+    private void muda() {
+        if (this.viejas == null) {
+            return;
+        }
+        for (int k = 0; k < MUDANZA && this.mudadas < this.viejas.length; k++) {
+            Lista<Entrada> l = this.viejas[this.mudadas];
+            this.viejas[this.mudadas++] = null;
+            if (l != null) {
+                for (Lista<Entrada>.Nodo n = l.cabeza; n != null; n = n.siguiente) {
+                    this.inserta(n.elemento,
+                                 this.picadillo.picadillo(n.elemento.llave));
+                }
+            }
+        }
+        if (this.mudadas == this.viejas.length) {
+            this.viejas = null;
+        }
     }
 
     /**
@@ -148,57 +276,79 @@ public class Diccionario<K, V> implements Iterable<V> {
      * @param valor el valor a agregar.
      * @throws IllegalArgumentException si la llave o el valor son nulos.
      */
-    public void agrega(K llave, V valor) {
-        Entrada entrada = new Entrada(llave, valor);
-        Lista<Entrada>[] nuevo;
-        int i;
-
+    @Override public void agrega(K llave, V valor) {
         if (llave == null || valor == null) {
             throw new IllegalArgumentException();
         }
-
-        i = this.aplicarHash(llave);
-        if (entradas[i] == null) {
-            entradas[i] = new Lista<Entrada>();
-        } else {
-            for (Entrada e: entradas[i]) {
-                if (e.llave.equals(llave)) {
-                    e.valor = valor;
-                    return;
-                }
-            }   
+        this.muda();
+        int h = this.picadillo.picadillo(llave);
+        Entrada e = this.buscaEntrada(llave, h);
+        if (e != null) {
+            e.valor = valor;
+            return;
         }
-        entradas[i].agrega(entrada);
-        this.elementos++;
+        this.agregaEntrada(new Entrada(llave, valor), h);
+    }
 
-        if (this.carga() >= this.MAXIMA_CARGA) {
-            mascara *= 2;
-            nuevo = this.nuevoArreglo(mascara+1);
-            for (Lista<Entrada> l: entradas) {
-                if (l != null) {
-                    for (Entrada e: l) {
-                        i = this.aplicarHash(e.llave);
-                        if (nuevo[i] == null) {
-                            nuevo[i] = new Lista<Entrada>();
-                        }
-                        nuevo[i].agrega(e);
-                    }
-                }
-            }
-            this.entradas = nuevo;
-        }       
+    /**
+     * Regresa el valor asociado a la llave; si la llave no está en el
+     * diccionario, primero le asocia el valor que regrese el creador. A
+     * diferencia de usar {@link #contiene}, {@link #get} y {@link #agrega},
+     * la llave se busca una sola vez.
+     * @param llave la llave para buscar el valor.
+     * @param creador la función que crea el valor si la llave no está.
+     * @return el valor asociado a la llave.
+     * @throws IllegalArgumentException si la llave o el valor creado son
+     *         nulos.
+     */
+    @Override public V getOAgrega(K llave,
+                                  Function<? super K, ? extends V> creador) {
+        if (llave == null) {
+            throw new IllegalArgumentException();
+        }
+        this.muda();
+        int h = this.picadillo.picadillo(llave);
+        Entrada e = this.buscaEntrada(llave, h);
+        if (e != null) {
+            return e.valor;
+        }
+        V valor = creador.apply(llave);
+        if (valor == null) {
+            throw new IllegalArgumentException();
+        }
+        this.agregaEntrada(new Entrada(llave, valor), h);
+        return valor;
     }
 
-    private Entrada getEntrada(K llave) {
-        int i = this.aplicarHash(llave);
-        if(this.entradas[i] != null) {
-            for (Entrada e:entradas[i]) {
-                if (e.llave.equals(llave)) {
-                    return e;
-                }
-            }
+    /**
+     * Mezcla un valor en el diccionario. Si la llave no está, le asocia el
+     * valor recibido; si ya está, le asocia el resultado de combinar el valor
+     * que tenía con el recibido. La llave se busca una sola vez.
+     * @param llave la llave del valor.
+     * @param valor el valor a mezclar.
+     * @param combinador la función que combina el valor anterior con el
+     *        recibido.
+     * @return el valor que queda asociado a la llave.
+     * @throws IllegalArgumentException si la llave, el valor o la combinación
+     *         son nulos.
+     */
+    @Override public V mezcla(K llave, V valor, BinaryOperator<V> combinador) {
+        if (llave == null || valor == null) {
+            throw new IllegalArgumentException();
+        }
+        this.muda();
+        int h = this.picadillo.picadillo(llave);
+        Entrada e = this.buscaEntrada(llave, h);
+        if (e == null) {
+            this.agregaEntrada(new Entrada(llave, valor), h);
+            return valor;
+        }
+        V combinado = combinador.apply(e.valor, valor);
+        if (combinado == null) {
+            throw new IllegalArgumentException();
         }
-        throw new NoSuchElementException();
+        e.valor = combinado;
+        return combinado;
     }
 
     /**
@@ -207,8 +357,12 @@ public class Diccionario<K, V> implements Iterable<V> {
      * @return el valor correspondiente a la llave.
      * @throws NoSuchElementException si la llave no está en el diccionario.
      */
-    public V get(K llave) {
-        return this.getEntrada(llave).valor;
+    @Override public V get(K llave) {
+        Entrada e = this.buscaEntrada(llave, this.picadillo.picadillo(llave));
+        if (e == null) {
+            throw new NoSuchElementException();
+        }
+        return e.valor;
     }
 
     /**
@@ -217,18 +371,9 @@ public class Diccionario<K, V> implements Iterable<V> {
      * @return <tt>true</tt> si la llave está en el diccionario,
      *         <tt>false</tt> en otro caso.
      */
-    public boolean contiene(K llave) {
-        if (llave != null) {
-            int i = this.aplicarHash(llave);
-            if (this.entradas[i] != null) {
-                for (Entrada e:entradas[i]) {
-                    if (e.llave.equals(llave)) {
-                        return true;
-                    }
-                }
-            }
-        }
-        return false;
+    @Override public boolean contiene(K llave) {
+        return llave != null &&
+            this.buscaEntrada(llave, this.picadillo.picadillo(llave)) != null;
     }
 
     /**
@@ -237,18 +382,20 @@ public class Diccionario<K, V> implements Iterable<V> {
      * @throws NoSuchElementException si la llave no se encuentra en
      *         el diccionario.
      */
-    public void elimina(K llave) {
-        int i = this.aplicarHash(llave);
-        if (this.entradas[i] != null) {
-            for (Entrada e:entradas[i]) {
-                if (e.llave.equals(llave)) {
-                    entradas[i].elimina(e);
-                    this.elementos--;
-                    return;
-                }
-            }
+    @Override public void elimina(K llave) {
+        this.muda();
+        int h = this.picadillo.picadillo(llave);
+        Lista<Entrada> l = this.listaVieja(h);
+        Entrada e = this.buscaEnLista(l, llave);
+        if (e == null) {
+            l = this.entradas[h & this.mascara];
+            e = this.buscaEnLista(l, llave);
+        }
+        if (e == null) {
+            throw new NoSuchElementException();
         }
-        throw new NoSuchElementException();
+        l.elimina(e);
+        this.elementos--;
     }
 
     /**
@@ -256,14 +403,11 @@ public class Diccionario<K, V> implements Iterable<V> {
      * diccionario. La lista no tiene ningún tipo de orden.
      * @return una lista con todas las llaves.
      */
-    public Lista<K> llaves() {
+    @Override public Lista<K> llaves() {
         Lista<K> llaves = new Lista<K>();
-        for (Lista<Entrada> l : this.entradas) {
-            if (l != null) {
-                for (Entrada e : l) {
-                    llaves.agrega(e.llave);
-                }
-            }
+        Iterador iterador = new Iterador();
+        while (iterador.hasNext()) {
+            llaves.agrega(iterador.siguienteEntrada().llave);
         }
         return llaves;
     }
@@ -273,29 +417,33 @@ public class Diccionario<K, V> implements Iterable<V> {
      * tiene ningún tipo de orden.
      * @return una lista con todos los valores.
      */
-    public Lista<V> valores() {
+    @Override public Lista<V> valores() {
         Lista<V> valores = new Lista<V>();
-        for (Lista<Entrada> l : this.entradas) {
-            if (l != null) {
-                for (Entrada e : l) {
-                    valores.agrega(e.valor);
-                }
-            }
+        for (V valor : this) {
+            valores.agrega(valor);
         }
         return valores;
     }
 
+    /* Regresa las colisiones de una lista; las listas vacías no tienen. */
+    private static int colisiones(Lista<?> l) {
+        return (l == null || l.getLongitud() == 0) ? 0 : l.getLongitud()-1;
+    }
+
     /**
      * Nos dice cuántas colisiones hay en el diccionario.
      * @return cuántas colisiones hay en el diccionario.
      */
-    public int colisiones() {
+    @Override public int colisiones() {
         int colisiones = 0;
-        for (Lista<Entrada> l : this.entradas) {
-            if (l != null) {
-                colisiones += l.getLongitud()-1;    
+        if (this.viejas != null) {
+            for (int i = this.mudadas; i < this.viejas.length; i++) {
+                colisiones += colisiones(this.viejas[i]);
             }
         }
+        for (Lista<Entrada> l : this.entradas) {
+            colisiones += colisiones(l);
+        }
         return colisiones;
     }
 
@@ -304,16 +452,17 @@ public class Diccionario<K, V> implements Iterable<V> {
      * en el diccionario.
      * @return el máximo número de colisiones para una misma llave.
      */
-    public int colisionMaxima() {
-        int colision, colisionMaxima = 0;
-        for (Lista<Entrada> l : this.entradas) {
-            if (l != null) {
-                colision = l.getLongitud()-1;
-                if (colisionMaxima < colision) {
-                    colisionMaxima = colision;
-                }   
+    @Override public int colisionMaxima() {
+        int colisionMaxima = 0;
+        if (this.viejas != null) {
+            for (int i = this.mudadas; i < this.viejas.length; i++) {
+                colisionMaxima = Math.max(colisionMaxima,
+                                          colisiones(this.viejas[i]));
             }
         }
+        for (Lista<Entrada> l : this.entradas) {
+            colisionMaxima = Math.max(colisionMaxima, colisiones(l));
+        }
         return colisionMaxima;
     }
 
@@ -321,7 +470,7 @@ public class Diccionario<K, V> implements Iterable<V> {
      * Nos dice la carga del diccionario.
      * @return la carga del diccionario.
      */
-    public double carga() {
+    @Override public double carga() {
         return (this.elementos + 0.0)/this.entradas.length;
     }
     
@@ -329,7 +478,7 @@ public class Diccionario<K, V> implements Iterable<V> {
      * Regresa el número de entradas en el diccionario.
      * @return el número de entradas en el diccionario.
      */
-    public int getElementos() {    
+    @Override public int getElementos() {    
         return this.elementos;
     }
 
@@ -338,7 +487,7 @@ public class Diccionario<K, V> implements Iterable<V> {
      * @return <code>true</code> si el diccionario es vacío, <code>false</code>
      *         en otro caso.
      */
-    public boolean esVacio() {
+    @Override public boolean esVacio() {
         return this.elementos == 0;
     }
 
@@ -346,13 +495,13 @@ public class Diccionario<K, V> implements Iterable<V> {
      * Nos dice si el diccionario es igual al objeto recibido.
      * @param o el objeto que queremos saber si es igual al diccionario.
      * @return <code>true</code> si el objeto recibido es instancia de
-     *         Diccionario, y tiene las mismas llaves asociadas a los mismos
+     *         Mapa, y tiene las mismas llaves asociadas a los mismos
      *         valores.
      */
     @Override public boolean equals(Object o) {
-        if (!(o instanceof Diccionario))
+        if (!(o instanceof Mapa))
             return false;
-        @SuppressWarnings("unchecked") Diccionario<K, V> d = (Diccionario<K, V>)o;
+        @SuppressWarnings("unchecked") Mapa<K, V> d = (Mapa<K, V>)o;
         Lista<K> llaves = this.llaves(), llaves_d = d.llaves();
         if (llaves.getLongitud() != llaves_d.getLongitud()) {
             return false;
@@ -365,6 +514,20 @@ public class Diccionario<K, V> implements Iterable<V> {
         return true;
     }
 
+    /**
+     * Regresa un picadillo del diccionario, consistente con {@link #equals}.
+     * @return un picadillo del diccionario.
+     */
+    @Override public int hashCode() {
+        int h = 0;
+        Iterador iterador = new Iterador();
+        while (iterador.hasNext()) {
+            Entrada e = iterador.siguienteEntrada();
+            h += e.llave.hashCode() ^ e.valor.hashCode();
+        }
+        return h;
+    }
+
     /**
      * Regresa un iterador para iterar los valores del diccionario. El
      * diccionario se itera sin ningún orden específico.
@@ -0,0 +1,443 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+/**
+ * Clase para diccionarios con direccionamiento abierto (<em>open
+ * addressing</em>). Implementa {@link Mapa} igual que {@link Diccionario}, pero
+ * en lugar de guardar una lista de entradas por cada posición, guarda las
+ * llaves, los valores y los picadillos en tres arreglos paralelos, y resuelve
+ * las colisiones con sondeo lineal: si la posición de una llave está ocupada,
+ * se usa la siguiente libre. Cada llave cuesta así tres casillas de arreglo,
+ * en lugar de una entrada, un nodo de lista y una lista.
+ */
+public class DiccionarioAbierto<K, V> implements Mapa<K, V> {
+
+    /* Clase privada para iteradores de diccionarios abiertos. */
+    private class Iterador implements Iterator<V> {
+
+        /* La siguiente posición ocupada. */
+        private int indice;
+
+        /* Construye un nuevo iterador en la primera posición ocupada. */
+        public Iterador() {
+            this.indice = SondeoLineal.siguienteOcupada(llaves, 0);
+        }
+
+        /* Nos dice si hay un siguiente elemento. */
+        @Override public boolean hasNext() {
+            return indice < llaves.length;
+        }
+
+        /* Regresa el siguiente elemento. */
+        @Override public V next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            V valor = valor(indice);
+            indice = SondeoLineal.siguienteOcupada(llaves, indice + 1);
+            return valor;
+        }
+
+        /* No lo implementamos: siempre lanza una excepción. */
+        @Override public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /** Máxima carga permitida por el diccionario. */
+    public static final double MAXIMA_CARGA = SondeoLineal.MAXIMA_CARGA;
+
+    /* Máscara para no usar módulo; siempre es una potencia de 2 menos 1. */
+    private int mascara;
+    /* Picadillo. */
+    private Picadillo<K> picadillo;
+    /* Las llaves; null indica una posición libre. */
+    private Object[] llaves;
+    /* Los valores, en la misma posición que su llave. */
+    private Object[] valores;
+    /* Los picadillos de las llaves, para no recalcularlos ni comparar llaves
+     * con picadillos distintos. */
+    private int[] picadillos;
+    /* Número de valores. */
+    private int elementos;
+
+    /**
+     * Construye un diccionario abierto con un tamaño inicial y picadillo
+     * predeterminados.
+     */
+    public DiccionarioAbierto() {
+        this(0, (K o) -> o.hashCode());
+    }
+
+    /**
+     * Construye un diccionario abierto con un tamaño inicial definido por el
+     * usuario, y un picadillo predeterminado.
+     * @param tam el tamaño a utilizar.
+     */
+    public DiccionarioAbierto(int tam) {
+        this(tam, (K o) -> o.hashCode());
+    }
+
+    /**
+     * Construye un diccionario abierto con un tamaño inicial predeterminado, y
+     * un picadillo definido por el usuario.
+     * @param picadillo el picadillo a utilizar.
+     */
+    public DiccionarioAbierto(Picadillo<K> picadillo) {
+        this(0, picadillo);
+    }
+
+    /**
+     * Construye un diccionario abierto con un tamaño inicial, y un método de
+     * picadillo definidos por el usuario. El diccionario tiene lugar para al
+     * menos <code>tam</code> llaves sin tener que crecer.
+     * @param tam el tamaño del diccionario.
+     * @param picadillo el picadillo a utilizar.
+     */
+    public DiccionarioAbierto(int tam, Picadillo<K> picadillo) {
+        this.picadillo = picadillo;
+        this.inicializa(SondeoLineal.tamano(tam));
+    }
+
+    /* Crea los arreglos vacíos con n posiciones. */
+    private void inicializa(int n) {
+        this.mascara = n - 1;
+        this.llaves = new Object[n];
+        this.valores = new Object[n];
+        this.picadillos = new int[n];
+    }
+
+    /* Calcula el picadillo mezclado de la llave. */
+    private int picadillo(K llave) {
+        return SondeoLineal.mezcla(this.picadillo.picadillo(llave));
+    }
+
+    /* Regresa la posición donde está la llave, o la posición libre donde
+     * tendría que ir. */
+    private int posicion(Object llave, int h) {
+        return SondeoLineal.posicion(llaves, picadillos, llave, h);
+    }
+
+    /* Regresa la posición de la llave, o -1 si no está. */
+    private int busca(K llave) {
+        if (llave == null) {
+            return -1;
+        }
+        int i = posicion(llave, picadillo(llave));
+        return llaves[i] == null ? -1 : i;
+    }
+
+    /* Regresa la llave en la posición i. */
+    @SuppressWarnings("unchecked") private K llave(int i) {
+        return (K)llaves[i];
+    }
+
+    /* Regresa el valor en la posición i. */
+    @SuppressWarnings("unchecked") private V valor(int i) {
+        return (V)valores[i];
+    }
+
+    /* Pone la llave en la posición libre i, y crece si es necesario. */
+    private void ocupa(int i, K llave, V valor, int h) {
+        llaves[i] = llave;
+        valores[i] = valor;
+        picadillos[i] = h;
+        if (SondeoLineal.llena(++this.elementos, llaves)) {
+            this.crece();
+        }
+    }
+
+    /* Duplica el tamaño de los arreglos y reacomoda todas las llaves. */
+    private void crece() {
+        Object[] llaves = this.llaves, valores = this.valores;
+        int[] picadillos = this.picadillos;
+        this.inicializa(llaves.length << 1);
+        for (int j = 0; j < llaves.length; j++) {
+            if (llaves[j] != null) {
+                int i = SondeoLineal.libre(this.llaves, picadillos[j]);
+                this.llaves[i] = llaves[j];
+                this.valores[i] = valores[j];
+                this.picadillos[i] = picadillos[j];
+            }
+        }
+    }
+
+    /**
+     * Agrega un nuevo valor al diccionario, usando la llave proporcionada. Si
+     * la llave ya había sido utilizada antes para agregar un valor, el
+     * diccionario reemplaza ese valor con el recibido aquí.
+     * @param llave la llave para agregar el valor.
+     * @param valor el valor a agregar.
+     * @throws IllegalArgumentException si la llave o el valor son nulos.
+     */
+    @Override public void agrega(K llave, V valor) {
+        if (llave == null || valor == null) {
+            throw new IllegalArgumentException();
+        }
+        int h = picadillo(llave);
+        int i = posicion(llave, h);
+        if (llaves[i] != null) {
+            valores[i] = valor;
+        } else {
+            ocupa(i, llave, valor, h);
+        }
+    }
+
+    /**
+     * Regresa el valor asociado a la llave; si la llave no está en el
+     * diccionario, primero le asocia el valor que regrese el creador. La llave
+     * se busca una sola vez.
+     * @param llave la llave para buscar el valor.
+     * @param creador la función que crea el valor si la llave no está.
+     * @return el valor asociado a la llave.
+     * @throws IllegalArgumentException si la llave o el valor creado son
+     *         nulos.
+     */
+    @Override public V getOAgrega(K llave,
+                                  Function<? super K, ? extends V> creador) {
+        if (llave == null) {
+            throw new IllegalArgumentException();
+        }
+        int h = picadillo(llave);
+        int i = posicion(llave, h);
+        if (llaves[i] != null) {
+            return valor(i);
+        }
+        V valor = creador.apply(llave);
+        if (valor == null) {
+            throw new IllegalArgumentException();
+        }
+        ocupa(i, llave, valor, h);
+        return valor;
+    }
+
+    /**
+     * Mezcla un valor en el diccionario. Si la llave no está, le asocia el
+     * valor recibido; si ya está, le asocia el resultado de combinar el valor
+     * que tenía con el recibido. La llave se busca una sola vez.
+     * @param llave la llave del valor.
+     * @param valor el valor a mezclar.
+     * @param combinador la función que combina el valor anterior con el
+     *        recibido.
+     * @return el valor que queda asociado a la llave.
+     * @throws IllegalArgumentException si la llave, el valor o la combinación
+     *         son nulos.
+     */
+    @Override public V mezcla(K llave, V valor, BinaryOperator<V> combinador) {
+        if (llave == null || valor == null) {
+            throw new IllegalArgumentException();
+        }
+        int h = picadillo(llave);
+        int i = posicion(llave, h);
+        if (llaves[i] == null) {
+            ocupa(i, llave, valor, h);
+            return valor;
+        }
+        V combinado = combinador.apply(valor(i), valor);
+        if (combinado == null) {
+            throw new IllegalArgumentException();
+        }
+        valores[i] = combinado;
+        return combinado;
+    }
+
+    /**
+     * Regresa el valor del diccionario asociado a la llave proporcionada.
+     * @param llave la llave para buscar el valor.
+     * @return el valor correspondiente a la llave.
+     * @throws NoSuchElementException si la llave no está en el diccionario.
+     */
+    @Override public V get(K llave) {
+        int i = busca(llave);
+        if (i == -1) {
+            throw new NoSuchElementException();
+        }
+        return valor(i);
+    }
+
+    /**
+     * Nos dice si una llave se encuentra en el diccionario.
+     * @param llave la llave que queremos ver si está en el diccionario.
+     * @return <tt>true</tt> si la llave está en el diccionario,
+     *         <tt>false</tt> en otro caso.
+     */
+    @Override public boolean contiene(K llave) {
+        return busca(llave) != -1;
+    }
+
+    /**
+     * Elimina el valor del diccionario asociado a la llave proporcionada. Las
+     * llaves que siguen a la eliminada se recorren hacia atrás, así que no
+     * quedan marcas de eliminación que hagan más lentas las búsquedas.
+     * @param llave la llave para buscar el valor a eliminar.
+     * @throws NoSuchElementException si la llave no se encuentra en
+     *         el diccionario.
+     */
+    @Override public void elimina(K llave) {
+        int i = busca(llave);
+        if (i == -1) {
+            throw new NoSuchElementException();
+        }
+        int j = i;
+        while (true) {
+            j = SondeoLineal.siguiente(llaves, j);
+            if (llaves[j] == null) {
+                break;
+            }
+            int k = picadillos[j] & mascara;
+            /* Si la posición original de la llave en j está en (i, j], la
+             * llave se puede quedar donde está. */
+            boolean seQueda = (i <= j) ? (i < k && k <= j) : (i < k || k <= j);
+            if (!seQueda) {
+                llaves[i] = llaves[j];
+                valores[i] = valores[j];
+                picadillos[i] = picadillos[j];
+                i = j;
+            }
+        }
+        llaves[i] = null;
+        valores[i] = null;
+        picadillos[i] = 0;
+        this.elementos--;
+    }
+
+    /**
+     * Regresa una lista con todas las llaves con valores asociados en el
+     * diccionario. La lista no tiene ningún tipo de orden.
+     * @return una lista con todas las llaves.
+     */
+    @Override public Lista<K> llaves() {
+        Lista<K> llaves = new Lista<K>();
+        for (int i = SondeoLineal.siguienteOcupada(this.llaves, 0);
+             i < this.llaves.length;
+             i = SondeoLineal.siguienteOcupada(this.llaves, i + 1)) {
+            llaves.agrega(llave(i));
+        }
+        return llaves;
+    }
+
+    /**
+     * Regresa una lista con todos los valores en el diccionario. La lista no
+     * tiene ningún tipo de orden.
+     * @return una lista con todos los valores.
+     */
+    @Override public Lista<V> valores() {
+        Lista<V> valores = new Lista<V>();
+        for (V valor : this) {
+            valores.agrega(valor);
+        }
+        return valores;
+    }
+
+    /**
+     * Nos dice cuántas colisiones hay en el diccionario. En un diccionario
+     * abierto, una llave tuvo una colisión si no está en la posición que le
+     * toca por su picadillo.
+     * @return cuántas colisiones hay en el diccionario.
+     */
+    @Override public int colisiones() {
+        int colisiones = 0;
+        for (int i = 0; i < llaves.length; i++) {
+            if (llaves[i] != null && (picadillos[i] & mascara) != i) {
+                colisiones++;
+            }
+        }
+        return colisiones;
+    }
+
+    /**
+     * Nos dice el máximo número de colisiones para una misma llave que tenemos
+     * en el diccionario, es decir, la máxima distancia entre la posición de
+     * una llave y la posición que le toca por su picadillo.
+     * @return el máximo número de colisiones para una misma llave.
+     */
+    @Override public int colisionMaxima() {
+        int colisionMaxima = 0;
+        for (int i = 0; i < llaves.length; i++) {
+            if (llaves[i] != null) {
+                int colision = (i - picadillos[i]) & mascara;
+                if (colisionMaxima < colision) {
+                    colisionMaxima = colision;
+                }
+            }
+        }
+        return colisionMaxima;
+    }
+
+    /**
+     * Nos dice la carga del diccionario.
+     * @return la carga del diccionario.
+     */
+    @Override public double carga() {
+        return (this.elementos + 0.0)/this.llaves.length;
+    }
+
+    /**
+     * Regresa el número de entradas en el diccionario.
+     * @return el número de entradas en el diccionario.
+     */
+    @Override public int getElementos() {
+        return this.elementos;
+    }
+
+    /**
+     * Nos dice si el diccionario es vacío.
+     * @return <code>true</code> si el diccionario es vacío, <code>false</code>
+     *         en otro caso.
+     */
+    @Override public boolean esVacio() {
+        return this.elementos == 0;
+    }
+
+    /**
+     * Nos dice si el diccionario es igual al objeto recibido.
+     * @param o el objeto que queremos saber si es igual al diccionario.
+     * @return <code>true</code> si el objeto recibido es instancia de
+     *         Mapa, y tiene las mismas llaves asociadas a los mismos
+     *         valores.
+     */
+    @Override public boolean equals(Object o) {
+        if (!(o instanceof Mapa)) {
+            return false;
+        }
+        @SuppressWarnings("unchecked") Mapa<K, V> d = (Mapa<K, V>)o;
+        if (this.elementos != d.getElementos()) {
+            return false;
+        }
+        for (int i = 0; i < llaves.length; i++) {
+            if (llaves[i] != null &&
+                !(d.contiene(llave(i)) && d.get(llave(i)).equals(valores[i]))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Regresa un picadillo del diccionario, consistente con {@link #equals}.
+     * @return un picadillo del diccionario.
+     */
+    @Override public int hashCode() {
+        int h = 0;
+        for (int i = 0; i < llaves.length; i++) {
+            if (llaves[i] != null) {
+                h += llaves[i].hashCode() ^ valores[i].hashCode();
+            }
+        }
+        return h;
+    }
+
+    /**
+     * Regresa un iterador para iterar los valores del diccionario. El
+     * diccionario se itera sin ningún orden específico, recorriendo los
+     * arreglos directamente.
+     * @return un iterador para iterar el diccionario.
+     */
+    @Override public Iterator<V> iterator() {
+        return new Iterador();
+    }
+}
@@ -1,7 +1,11 @@
 package mx.unam.ciencias.edd;
 
+import java.util.BitSet;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * Clase para gráficas. Una gráfica es un conjunto de vértices y aristas, tales
@@ -79,6 +83,126 @@ public class Grafica<T> implements Coleccion<T> {
         }
     }
 
+    /* Vecindad de un vértice: sus vecinos indexados por elemento. Mientras el
+     * grado es pequeño los vecinos se guardan en un arreglo que se recorre
+     * linealmente, que ocupa mucho menos que un diccionario y es igual de
+     * rápido con pocos elementos; al pasar de UMBRAL vecinos se mudan a un
+     * diccionario. Un vértice sin vecinos no reserva memoria. */
+    private class Vecindad implements Iterable<Grafica<T>.Vecino> {
+
+        /* Los vecinos, mientras el grado es pequeño. */
+        private Vecino[] arreglo;
+        /* El número de vecinos en el arreglo. */
+        private int grado;
+        /* Los vecinos, cuando el grado pasa de UMBRAL. */
+        private Mapa<T, Vecino> diccionario;
+
+        /* Regresa el vecino con el elemento, o null si no está. */
+        public Vecino busca(T llave) {
+            if (this.diccionario != null) {
+                return this.diccionario.contiene(llave) ?
+                    this.diccionario.get(llave) : null;
+            }
+            for (int i = 0; i < this.grado; i++) {
+                if (this.arreglo[i].vecino.elemento.equals(llave)) {
+                    return this.arreglo[i];
+                }
+            }
+            return null;
+        }
+
+        /* Nos dice si el elemento es vecino. */
+        public boolean contiene(T llave) {
+            return this.busca(llave) != null;
+        }
+
+        /* Regresa el vecino con el elemento; lanza NoSuchElementException si
+         * no está. */
+        public Vecino get(T llave) {
+            Vecino v = this.busca(llave);
+            if (v == null) {
+                throw new NoSuchElementException();
+            }
+            return v;
+        }
+
+        /* Agrega un vecino que no estaba. */
+        public void agrega(T llave, Vecino vecino) {
+            if (this.diccionario != null) {
+                this.diccionario.agrega(llave, vecino);
+                return;
+            }
+            if (this.grado == UMBRAL) {
+                this.diccionario = new Diccionario<T, Vecino>(2 * UMBRAL);
+                for (int i = 0; i < this.grado; i++) {
+                    this.diccionario.agrega(this.arreglo[i].vecino.elemento,
+                                            this.arreglo[i]);
+                }
+                this.diccionario.agrega(llave, vecino);
+                this.arreglo = null;
+                this.grado = 0;
+                return;
+            }
+            if (this.arreglo == null) {
+                this.arreglo = nuevoArreglo(2);
+            } else if (this.grado == this.arreglo.length) {
+                Vecino[] nuevo = nuevoArreglo(2 * this.grado);
+                System.arraycopy(this.arreglo, 0, nuevo, 0, this.grado);
+                this.arreglo = nuevo;
+            }
+            this.arreglo[this.grado++] = vecino;
+        }
+
+        /* Elimina al vecino con el elemento; lanza NoSuchElementException si
+         * no está. En el arreglo, el último vecino ocupa su lugar. */
+        public void elimina(T llave) {
+            if (this.diccionario != null) {
+                this.diccionario.elimina(llave);
+                return;
+            }
+            for (int i = 0; i < this.grado; i++) {
+                if (this.arreglo[i].vecino.elemento.equals(llave)) {
+                    this.arreglo[i] = this.arreglo[--this.grado];
+                    this.arreglo[this.grado] = null;
+                    return;
+                }
+            }
+            throw new NoSuchElementException();
+        }
+
+        /* Regresa el número de vecinos. */
+        public int getElementos() {
+            return this.diccionario != null ?
+                this.diccionario.getElementos() : this.grado;
+        }
+
+        /* Regresa un iterador para los vecinos. */
+        @Override public Iterator<Grafica<T>.Vecino> iterator() {
+            if (this.diccionario != null) {
+                return this.diccionario.iterator();
+            }
+            return new Iterator<Grafica<T>.Vecino>() {
+                private int siguiente;
+
+                @Override public boolean hasNext() {
+                    return siguiente < grado;
+                }
+
+                @Override public Vecino next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return arreglo[siguiente++];
+                }
+            };
+        }
+
+        /* Truco para crear arreglos de vecinos. */
+        @SuppressWarnings("unchecked") private Vecino[] nuevoArreglo(int n) {
+            return (Vecino[])new Grafica.Vecino[n];
+        }
+    }
+
     /* Vertices para gráficas; implementan la interfaz ComparableIndexable y
      * VerticeGrafica */
     private class Vertice implements VerticeGrafica<T>,
@@ -92,14 +216,18 @@ public class Grafica<T> implements Coleccion<T> {
         public double distancia;
         /* El índice del vértice. */
         public int indice;
+        /* El identificador del vértice; no cambia mientras el vértice esté
+         * en la gráfica, y es menor que el número de identificadores. */
+        public int identificador;
         /* El conjunto de vecinos del vértice. */
-        public Diccionario<T, Grafica<T>.Vecino> vecinos;
+        public Vecindad vecinos;
 
         /* Crea un nuevo vértice a partir de un elemento. */
-        public Vertice(T elemento) {
+        public Vertice(T elemento, int identificador) {
             this.elemento = elemento;
 			this.color = Color.NINGUNO;
-			this.vecinos = new Diccionario<T, Grafica<T>.Vecino>();
+			this.identificador = identificador;
+			this.vecinos = new Vecindad();
         }
 
         /* Regresa el elemento del vértice. */
@@ -143,6 +271,159 @@ public class Grafica<T> implements Coleccion<T> {
         }
     }
 
+    /**
+     * Clase para los resultados de {@link Grafica#bfsParalelo}: la distancia
+     * en aristas del origen a cada vértice alcanzable y su padre en el árbol
+     * BFS. Los resultados dejan de ser válidos si la gráfica se modifica.
+     */
+    public class RecorridoParalelo {
+
+        /* El vértice de origen. */
+        private Vertice origen;
+        /* El padre de cada vértice por identificador; el origen es su propio
+         * padre y los vértices no alcanzados no tienen. */
+        private AtomicReferenceArray<Vertice> padres;
+        /* La distancia de cada vértice por identificador. */
+        private int[] distancias;
+        /* El número de vértices alcanzados. */
+        private int alcanzados;
+
+        /* Construye el resultado vacío de un recorrido desde el origen. */
+        private RecorridoParalelo(Vertice origen, int identificadores) {
+            this.origen = origen;
+            this.padres = new AtomicReferenceArray<Vertice>(identificadores);
+            this.distancias = new int[identificadores];
+            this.padres.set(origen.identificador, origen);
+        }
+
+        /**
+         * Regresa la distancia en aristas del origen al elemento.
+         * @param elemento el elemento.
+         * @return la distancia en aristas del origen al elemento, o -1 si el
+         *         elemento no es alcanzable desde el origen.
+         * @throws NoSuchElementException si el elemento no está en la
+         *         gráfica.
+         */
+        public int getDistancia(T elemento) {
+            Vertice v = busca(elemento);
+            if (padres.get(v.identificador) == null) {
+                return -1;
+            }
+            return distancias[v.identificador];
+        }
+
+        /**
+         * Regresa el padre del elemento en el árbol BFS; es decir, el
+         * elemento anterior en una trayectoria mínima desde el origen.
+         * @param elemento el elemento.
+         * @return el padre del elemento, o <code>null</code> si el elemento
+         *         es el origen o no es alcanzable desde el origen.
+         * @throws NoSuchElementException si el elemento no está en la
+         *         gráfica.
+         */
+        public T getPadre(T elemento) {
+            Vertice v = busca(elemento);
+            Vertice padre = padres.get(v.identificador);
+            if (padre == null || v == origen) {
+                return null;
+            }
+            return padre.elemento;
+        }
+
+        /**
+         * Regresa el número de vértices alcanzables desde el origen,
+         * incluyéndolo.
+         * @return el número de vértices alcanzables desde el origen.
+         */
+        public int getAlcanzados() {
+            return alcanzados;
+        }
+    }
+
+    /* Tarea que expande un tramo de la frontera de un BFS paralelo: marca a
+     * los vecinos no visitados con un compareAndSet sobre su padre, de modo
+     * que cada vértice lo reclama un solo hilo, y regresa la parte de la
+     * siguiente frontera que le tocó. Si el tramo es grande lo parte en dos. */
+    private class Expansion extends RecursiveTask<Vertice[]> {
+
+        /* Versión para serializar; las tareas nunca se serializan. */
+        private static final long serialVersionUID = 1L;
+
+        /* El recorrido. */
+        private RecorridoParalelo recorrido;
+        /* La frontera actual. */
+        private Vertice[] frontera;
+        /* Dónde empieza el tramo. */
+        private int desde;
+        /* Dónde termina el tramo (exclusive). */
+        private int hasta;
+        /* La distancia de los vértices de la frontera. */
+        private int nivel;
+
+        /* Construye la tarea para el tramo de la frontera. */
+        public Expansion(RecorridoParalelo recorrido, Vertice[] frontera,
+                         int desde, int hasta, int nivel) {
+            this.recorrido = recorrido;
+            this.frontera = frontera;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.nivel = nivel;
+        }
+
+        /* Expande el tramo; si es grande, expande las mitades en paralelo. */
+        @Override protected Vertice[] compute() {
+            if (hasta - desde > GRANO) {
+                int mitad = desde + (hasta - desde) / 2;
+                Expansion izquierda =
+                    new Expansion(recorrido, frontera, desde, mitad, nivel);
+                Expansion derecha =
+                    new Expansion(recorrido, frontera, mitad, hasta, nivel);
+                izquierda.fork();
+                Vertice[] d = derecha.compute();
+                return concatena(izquierda.join(), d);
+            }
+            Vertice[] siguiente = nuevoArregloVertices(hasta - desde);
+            int n = 0;
+            for (int i = desde; i < hasta; i++) {
+                Vertice v = frontera[i];
+                for (Vecino vci: v.vecinos) {
+                    Vertice w = vci.vecino;
+                    int id = w.identificador;
+                    if (recorrido.padres.get(id) == null &&
+                        recorrido.padres.compareAndSet(id, null, v)) {
+                        recorrido.distancias[id] = nivel + 1;
+                        if (n == siguiente.length) {
+                            Vertice[] nuevo = nuevoArregloVertices(2 * n + 1);
+                            System.arraycopy(siguiente, 0, nuevo, 0, n);
+                            siguiente = nuevo;
+                        }
+                        siguiente[n++] = w;
+                    }
+                }
+            }
+            if (n == siguiente.length) {
+                return siguiente;
+            }
+            Vertice[] justo = nuevoArregloVertices(n);
+            System.arraycopy(siguiente, 0, justo, 0, n);
+            return justo;
+        }
+
+        /* Pega dos partes de la siguiente frontera. */
+        private Vertice[] concatena(Vertice[] a, Vertice[] b) {
+            if (a.length == 0) {
+                return b;
+            }
+            if (b.length == 0) {
+                return a;
+            }
+            Vertice[] c = nuevoArregloVertices(a.length + b.length);
+            System.arraycopy(a, 0, c, 0, a.length);
+            System.arraycopy(b, 0, c, a.length, b.length);
+            return c;
+        }
+    }
+
     /* Interface para poder usar lambdas al buscar el elemento que sigue al
      * reconstruir un camino. */
     @FunctionalInterface
@@ -151,27 +432,36 @@ public class Grafica<T> implements Coleccion<T> {
         public boolean seSiguen(Grafica.Vertice v, Grafica.Vecino a);
     }
 
+    /* Tamaño de los tramos de frontera que el BFS paralelo expande en un
+     * solo hilo. */
+    private static final int GRANO = 512;
+
+    /* Grado a partir del cual los vecinos de un vértice se guardan en un
+     * diccionario en lugar de un arreglo. */
+    private static final int UMBRAL = 8;
+
     /* Vértices. */
-    private Diccionario<T, Vertice> vertices;
+    private Mapa<T, Vertice> vertices;
     /* Número de aristas. */
     private int aristas;
+    /* Número de identificadores repartidos entre los vértices. */
+    private int identificadores;
+    /* Identificadores de vértices eliminados, para reusarlos. */
+    private Pila<Integer> libres;
 
     /**
      * Constructor único.
      */
     public Grafica() {
         vertices = new Diccionario<T, Vertice>();
+        libres = new Pila<Integer>();
     }
 
-    /* Método auxiliar para buscar vecinos. */
+    /* Método auxiliar para buscar vecinos; los vecinos de cada vértice
+     * están indexados por su elemento. */
     private Vecino buscaVecino(Vertice vertice,
                                Vertice vecino) {
-        for (Vecino v: vertice.vecinos) {
-			if (v.vecino.equals(vecino)) {
-				return v;
-			}
-		}
-		return null;
+        return vertice.vecinos.busca(vecino.elemento);
     }
 
     /**
@@ -201,17 +491,19 @@ public class Grafica<T> implements Coleccion<T> {
     	if (elemento == null || this.contiene(elemento)) {
 			throw new IllegalArgumentException();
 		}
-		Vertice v = new Vertice(elemento);
+		int identificador = this.libres.esVacia() ?
+			this.identificadores++ : this.libres.saca();
+		Vertice v = new Vertice(elemento, identificador);
 		this.vertices.agrega(elemento, v);
     }
 
+	/* Busca el vértice del elemento en el diccionario de vértices, en
+	 * tiempo constante esperado. */
 	private Vertice busca(T elemento) {
-		for (Vertice v: this.vertices) {
-			if (v.elemento.equals(elemento)) {
-				return v;
-			}
+		if (elemento == null) {
+			throw new NoSuchElementException();
 		}
-		throw new NoSuchElementException();
+		return this.vertices.get(elemento);
 	}
 
     /**
@@ -224,20 +516,7 @@ public class Grafica<T> implements Coleccion<T> {
      *         igual a b.
      */
     public void conecta(T a, T b) {
-		Vertice av, bv;
-        Vecino vca, vcb;
-        if (a == b) {
-            throw new IllegalArgumentException();
-        }
-        if (this.sonVecinos(a, b)) {
-            throw new IllegalArgumentException();
-        }
-        av = this.busca(a);
-        bv = this.busca(b);
-		Vecino va = new Vecino(av, 1), vb = new Vecino(bv, 1);
-        bv.vecinos.agrega(a, va);
-        av.vecinos.agrega(b, vb);
-        this.aristas += 1;
+        this.conecta(a, b, 1);
     }
 
     /**
@@ -251,13 +530,10 @@ public class Grafica<T> implements Coleccion<T> {
      *         igual a b, o si el peso es no positivo.
      */
     public void conecta(T a, T b, double peso) {
-        Vertice av, bv;
-        Vecino vca, vcb;
-        if (a == b || this.sonVecinos(a, b) || peso == 0 || peso == -1) {
+        Vertice av = this.busca(a), bv = this.busca(b);
+        if (av == bv || av.vecinos.contiene(b) || peso == 0 || peso == -1) {
             throw new IllegalArgumentException();
         }
-        av = this.busca(a);
-        bv = this.busca(b);
 		Vecino va = new Vecino(av, peso), vb = new Vecino(bv, peso);
         bv.vecinos.agrega(a, va);
         av.vecinos.agrega(b, vb);
@@ -274,8 +550,7 @@ public class Grafica<T> implements Coleccion<T> {
      */
     public void desconecta(T a, T b) {
         Vertice av = this.busca(a), bv = this.busca(b);
-        Vecino vca, vcb;
-        if (!this.sonVecinos(a,b)) {
+        if (!av.vecinos.contiene(b)) {
             throw new IllegalArgumentException();
         }
         av.vecinos.elimina(b);
@@ -289,12 +564,7 @@ public class Grafica<T> implements Coleccion<T> {
      *         <tt>false</tt> en otro caso.
      */
     @Override public boolean contiene(T elemento) {
-        for (Vertice v:vertices) {
-            if (v.elemento.equals(elemento)) {
-                return true;
-            }
-        }
-        return false;
+        return this.vertices.contiene(elemento);
     }
 
     /**
@@ -307,9 +577,12 @@ public class Grafica<T> implements Coleccion<T> {
     @Override public void elimina(T elemento) {
         Vertice v = this.busca(elemento);
         for (Vecino vci: v.vecinos) {
-            this.desconecta(v.elemento, vci.vecino.elemento);
+            vci.vecino.vecinos.elimina(v.elemento);
         }
+        this.aristas -= v.getGrado();
+        v.vecinos = new Vecindad();
         vertices.elimina(elemento);
+        libres.mete(v.identificador);
     }
 
     /**
@@ -322,12 +595,8 @@ public class Grafica<T> implements Coleccion<T> {
      */
     public boolean sonVecinos(T a, T b) {
         Vertice av = this.busca(a), bv = this.busca(b);
-        for (Vecino v:av.vecinos) {
-            if (v.vecino.equals(bv)) {
-                return true;
-            }
-        }
-        return false;    }
+        return av.vecinos.contiene(bv.elemento);
+    }
 
     /**
      * Regresa el peso de la arista que comparten los vértices que contienen a
@@ -344,10 +613,11 @@ public class Grafica<T> implements Coleccion<T> {
             throw new IllegalArgumentException();
         }
         Vertice av = this.busca(a), bv = this.busca(b);
-        if (!this.sonVecinos(a,b)) {
+        Vecino vecino = this.buscaVecino(av, bv);
+        if (vecino == null) {
             return -1;
         }
-        return this.buscaVecino(av, bv).peso;
+        return vecino.peso;
     }
 
     /**
@@ -373,6 +643,10 @@ public class Grafica<T> implements Coleccion<T> {
 
 	/**
      * Auxiliar que recorre ya sea de manera bfs o dfs segun se le pase un MeteSaca y ejecuta una accion.
+     * Los vértices visitados se marcan en un conjunto de bits propio del
+     * recorrido, indexado por el identificador de cada vértice, y no en los
+     * vértices; así el recorrido sólo toca su componente y varios recorridos
+     * pueden ejecutarse a la vez.
      * @param elemento el elemento sobre cuyo vértice queremos comenzar el
      *        recorrido.
      * @param accion la acción a realizar.
@@ -381,27 +655,28 @@ public class Grafica<T> implements Coleccion<T> {
      **/
     private void recorreYActua(T elemento, AccionVerticeGrafica<T> accion, MeteSaca<Vertice> ms) {
         Vertice v = this.busca(elemento), vi;
-        this.paraCadaVertice((x) -> x.setColor(Color.NINGUNO));
+        BitSet visitados = new BitSet();
         ms.mete(v);
-        v.color = Color.NEGRO;
+        visitados.set(v.identificador);
         while(!ms.esVacia()) {
             vi = ms.saca();
             accion.actua(vi);
             for (Vecino vcj: vi.vecinos) {
-                if (vcj.vecino.color == Color.NINGUNO) {
+                if (!visitados.get(vcj.vecino.identificador)) {
                     ms.mete(vcj.vecino);
-                    vcj.vecino.color = Color.NEGRO;
+                    visitados.set(vcj.vecino.identificador);
                 }
             }
         }
-        this.paraCadaVertice((x) -> x.setColor(Color.NINGUNO));
     }
 
     /**
      * Realiza la acción recibida en todos los vértices de la gráfica, en el
      * orden determinado por BFS, comenzando por el vértice correspondiente al
-     * elemento recibido. Al terminar el método, todos los vértices tendrán
-     * color {@link Color#NINGUNO}.
+     * elemento recibido. El recorrido no cambia el color de los vértices, toma
+     * tiempo proporcional al tamaño de la componente del elemento, y puede
+     * ejecutarse desde varios hilos a la vez mientras nadie modifique la
+     * gráfica.
      * @param elemento el elemento sobre cuyo vértice queremos comenzar el
      *        recorrido.
      * @param accion la acción a realizar.
@@ -416,8 +691,10 @@ public class Grafica<T> implements Coleccion<T> {
     /**
      * Realiza la acción recibida en todos los vértices de la gráfica, en el
      * orden determinado por DFS, comenzando por el vértice correspondiente al
-     * elemento recibido. Al terminar el método, todos los vértices tendrán
-     * color {@link Color#NINGUNO}.
+     * elemento recibido. El recorrido no cambia el color de los vértices, toma
+     * tiempo proporcional al tamaño de la componente del elemento, y puede
+     * ejecutarse desde varios hilos a la vez mientras nadie modifique la
+     * gráfica.
      * @param elemento el elemento sobre cuyo vértice queremos comenzar el
      *        recorrido.
      * @param accion la acción a realizar.
@@ -429,6 +706,95 @@ public class Grafica<T> implements Coleccion<T> {
 
     }
 
+    /**
+     * Regresa una fotografía inmutable de la gráfica en formato de renglones
+     * dispersos comprimidos, para recorrerla muchas veces sin crear objetos.
+     * Los identificadores de los vértices siguen el orden en que la gráfica
+     * itera sus elementos. La fotografía no cambia si la gráfica se modifica
+     * después. Toma tiempo <i>O</i>(<i>n</i> + <i>m</i>).
+     * @return una fotografía inmutable de la gráfica.
+     */
+    public GraficaCompacta<T> congela() {
+        int n = this.vertices.getElementos();
+        @SuppressWarnings("unchecked") T[] elementos = (T[])new Object[n];
+        /* La fotografía sólo consulta los identificadores, así que usa un
+         * diccionario abierto, sin entradas ni listas por llave. */
+        Mapa<T, Integer> identificadores =
+            new DiccionarioAbierto<T, Integer>(n);
+        int[] desplazamientos = new int[n + 1];
+        int i = 0;
+        for (Vertice v: this.vertices) {
+            elementos[i] = v.elemento;
+            identificadores.agrega(v.elemento, i);
+            desplazamientos[i + 1] = desplazamientos[i] + v.getGrado();
+            i++;
+        }
+        int[] destinos = new int[desplazamientos[n]];
+        double[] pesos = new double[desplazamientos[n]];
+        int a = 0;
+        for (Vertice v: this.vertices) {
+            for (Vecino vci: v.vecinos) {
+                destinos[a] = identificadores.get(vci.vecino.elemento);
+                pesos[a++] = vci.peso;
+            }
+        }
+        return new GraficaCompacta<T>(elementos, identificadores,
+                                      desplazamientos, destinos, pesos);
+    }
+
+    /* Truco para crear arreglos de vértices. */
+    @SuppressWarnings("unchecked") private Vertice[] nuevoArregloVertices(int n) {
+        return (Vertice[])new Grafica.Vertice[n];
+    }
+
+    /**
+     * Hace un BFS desde el elemento recibido, expandiendo cada nivel en
+     * paralelo en el {@link ForkJoinPool#commonPool}. Se comporta como
+     * {@link #bfsParalelo(Object,ForkJoinPool)}.
+     * @param elemento el elemento sobre cuyo vértice queremos comenzar el
+     *        recorrido.
+     * @return la distancia y el padre de cada vértice alcanzado.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public RecorridoParalelo bfsParalelo(T elemento) {
+        return bfsParalelo(elemento, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Hace un BFS desde el elemento recibido, nivel por nivel: la frontera de
+     * cada nivel se parte en tramos que se expanden en paralelo en el
+     * <i>pool</i> recibido, y el siguiente nivel empieza cuando terminan
+     * todos. Cada vértice se marca como visitado de forma atómica con su
+     * identificador, así que lo reclama un solo hilo, y el recorrido no
+     * modifica a los vértices. La gráfica no debe modificarse durante el
+     * recorrido.
+     * @param elemento el elemento sobre cuyo vértice queremos comenzar el
+     *        recorrido.
+     * @param pool el <i>pool</i> donde se expanden las fronteras.
+     * @return la distancia y el padre de cada vértice alcanzado.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public RecorridoParalelo bfsParalelo(T elemento, ForkJoinPool pool) {
+        Vertice origen = this.busca(elemento);
+        RecorridoParalelo recorrido =
+            new RecorridoParalelo(origen, this.identificadores);
+        Vertice[] frontera = nuevoArregloVertices(1);
+        frontera[0] = origen;
+        int nivel = 0;
+        while (frontera.length > 0) {
+            recorrido.alcanzados += frontera.length;
+            Expansion expansion = new Expansion(recorrido, frontera, 0,
+                                                frontera.length, nivel);
+            if (frontera.length > GRANO) {
+                frontera = pool.invoke(expansion);
+            } else {
+                frontera = expansion.compute();
+            }
+            nivel++;
+        }
+        return recorrido;
+    }
+
     /**
      * Nos dice si la gráfica es vacía.
      * @return <code>true</code> si la gráfica es vacía, <code>false</code> en
@@ -0,0 +1,384 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase para fotografías inmutables de gráficas, en formato de renglones
+ * dispersos comprimidos (<i>CSR</i>). Se obtienen con {@link
+ * Grafica#congela}.</p>
+ *
+ * <p>Cada vértice se identifica con un entero entre 0 y <i>n</i>-1. Los
+ * vecinos del vértice <i>v</i> están en las posiciones entre
+ * <code>desplazamientos[v]</code> (inclusive) y
+ * <code>desplazamientos[v+1]</code> (exclusive) de los arreglos
+ * <code>destinos</code> y <code>pesos</code>; cada arista aparece una vez en
+ * cada uno de sus extremos. Los recorridos trabajan sólo con arreglos de
+ * tipos primitivos, así que no crean objetos en cada paso y recorren la
+ * memoria de forma contigua.</p>
+ *
+ * <p>La fotografía no cambia si la gráfica original se modifica después, y
+ * como nunca se modifica puede recorrerse desde varios hilos a la vez.</p>
+ */
+public class GraficaCompacta<T> {
+
+    /* Los elementos de los vértices, por identificador. */
+    private final T[] elementos;
+    /* El identificador de cada elemento. */
+    private final Mapa<T, Integer> identificadores;
+    /* Dónde empiezan los vecinos de cada vértice; tiene un lugar extra al
+     * final con el total. */
+    private final int[] desplazamientos;
+    /* Los identificadores de los vecinos. */
+    private final int[] destinos;
+    /* Los pesos de las aristas a los vecinos. */
+    private final double[] pesos;
+
+    /* Construye la fotografía a partir de sus arreglos; sólo la usa
+     * Grafica. */
+    GraficaCompacta(T[] elementos, Mapa<T, Integer> identificadores,
+                    int[] desplazamientos, int[] destinos, double[] pesos) {
+        this.elementos = elementos;
+        this.identificadores = identificadores;
+        this.desplazamientos = desplazamientos;
+        this.destinos = destinos;
+        this.pesos = pesos;
+    }
+
+    /**
+     * Regresa el número de vértices de la gráfica.
+     * @return el número de vértices de la gráfica.
+     */
+    public int getElementos() {
+        return elementos.length;
+    }
+
+    /**
+     * Regresa el número de aristas de la gráfica.
+     * @return el número de aristas de la gráfica.
+     */
+    public int getAristas() {
+        return destinos.length / 2;
+    }
+
+    /**
+     * Regresa el identificador del vértice con el elemento recibido.
+     * @param elemento el elemento del vértice.
+     * @return el identificador del vértice, entre 0 y el número de vértices
+     *         menos 1.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public int identificador(T elemento) {
+        if (elemento == null) {
+            throw new NoSuchElementException();
+        }
+        return identificadores.get(elemento);
+    }
+
+    /**
+     * Regresa el elemento del vértice con el identificador recibido.
+     * @param vertice el identificador del vértice.
+     * @return el elemento del vértice.
+     * @throws ExcepcionIndiceInvalido si el identificador no es válido.
+     */
+    public T elemento(int vertice) {
+        verifica(vertice);
+        return elementos[vertice];
+    }
+
+    /**
+     * Regresa el grado del vértice con el identificador recibido.
+     * @param vertice el identificador del vértice.
+     * @return el grado del vértice.
+     * @throws ExcepcionIndiceInvalido si el identificador no es válido.
+     */
+    public int getGrado(int vertice) {
+        verifica(vertice);
+        return desplazamientos[vertice + 1] - desplazamientos[vertice];
+    }
+
+    /**
+     * Regresa el identificador del <i>i</i>-ésimo vecino de un vértice.
+     * @param vertice el identificador del vértice.
+     * @param i el número de vecino, entre 0 y el grado del vértice menos 1.
+     * @return el identificador del vecino.
+     * @throws ExcepcionIndiceInvalido si el vértice o el número de vecino no
+     *         son válidos.
+     */
+    public int getVecino(int vertice, int i) {
+        return destinos[arista(vertice, i)];
+    }
+
+    /**
+     * Regresa el peso de la arista al <i>i</i>-ésimo vecino de un vértice.
+     * @param vertice el identificador del vértice.
+     * @param i el número de vecino, entre 0 y el grado del vértice menos 1.
+     * @return el peso de la arista al vecino.
+     * @throws ExcepcionIndiceInvalido si el vértice o el número de vecino no
+     *         son válidos.
+     */
+    public double getPeso(int vertice, int i) {
+        return pesos[arista(vertice, i)];
+    }
+
+    /* Regresa la posición en los arreglos de la arista al i-ésimo vecino. */
+    private int arista(int vertice, int i) {
+        if (i < 0 || i >= getGrado(vertice)) {
+            throw new ExcepcionIndiceInvalido();
+        }
+        return desplazamientos[vertice] + i;
+    }
+
+    /* Lanza una excepción si el identificador no es válido. */
+    private void verifica(int vertice) {
+        if (vertice < 0 || vertice >= elementos.length) {
+            throw new ExcepcionIndiceInvalido();
+        }
+    }
+
+    /**
+     * Recorre la componente conexa del vértice recibido por BFS.
+     * @param origen el identificador del vértice inicial.
+     * @return los identificadores de los vértices de la componente, en el
+     *         orden en que los visita BFS.
+     * @throws ExcepcionIndiceInvalido si el identificador no es válido.
+     */
+    public int[] bfs(int origen) {
+        verifica(origen);
+        int[] cola = new int[elementos.length];
+        boolean[] visitado = new boolean[elementos.length];
+        int fin = bfs(origen, cola, visitado, null);
+        return Arrays.copyOf(cola, fin);
+    }
+
+    /**
+     * Calcula la distancia en aristas del vértice recibido a todos los
+     * demás, con BFS.
+     * @param origen el identificador del vértice inicial.
+     * @return un arreglo con la distancia en aristas a cada vértice, o -1 si
+     *         el vértice no es alcanzable desde el origen.
+     * @throws ExcepcionIndiceInvalido si el identificador no es válido.
+     */
+    public int[] distancias(int origen) {
+        verifica(origen);
+        int[] distancias = new int[elementos.length];
+        Arrays.fill(distancias, -1);
+        bfs(origen, new int[elementos.length],
+            new boolean[elementos.length], distancias);
+        return distancias;
+    }
+
+    /* BFS que usa el arreglo cola como cola: cada vértice entra una sola
+     * vez, así que bastan dos índices. Marca los vértices visitados,
+     * llena las distancias si el arreglo no es nulo, y regresa cuántos
+     * vértices entraron a la cola. */
+    private int bfs(int origen, int[] cola, boolean[] visitado,
+                    int[] distancias) {
+        int inicio = 0, fin = 0;
+        cola[fin++] = origen;
+        visitado[origen] = true;
+        if (distancias != null) {
+            distancias[origen] = 0;
+        }
+        while (inicio < fin) {
+            int v = cola[inicio++];
+            for (int a = desplazamientos[v]; a < desplazamientos[v + 1]; a++) {
+                int w = destinos[a];
+                if (!visitado[w]) {
+                    visitado[w] = true;
+                    if (distancias != null) {
+                        distancias[w] = distancias[v] + 1;
+                    }
+                    cola[fin++] = w;
+                }
+            }
+        }
+        return fin;
+    }
+
+    /**
+     * Recorre la componente conexa del vértice recibido por DFS, en el mismo
+     * orden que {@link Grafica#dfs}: los vértices se marcan al meterse en la
+     * pila y se visitan al sacarse.
+     * @param origen el identificador del vértice inicial.
+     * @return los identificadores de los vértices de la componente, en el
+     *         orden en que los visita DFS.
+     * @throws ExcepcionIndiceInvalido si el identificador no es válido.
+     */
+    public int[] dfs(int origen) {
+        verifica(origen);
+        int[] pila = new int[elementos.length];
+        int[] orden = new int[elementos.length];
+        boolean[] visitado = new boolean[elementos.length];
+        int tope = 0, visitados = 0;
+        pila[tope++] = origen;
+        visitado[origen] = true;
+        while (tope > 0) {
+            int v = pila[--tope];
+            orden[visitados++] = v;
+            for (int a = desplazamientos[v]; a < desplazamientos[v + 1]; a++) {
+                int w = destinos[a];
+                if (!visitado[w]) {
+                    visitado[w] = true;
+                    pila[tope++] = w;
+                }
+            }
+        }
+        return Arrays.copyOf(orden, visitados);
+    }
+
+    /**
+     * Calcula el peso de las trayectorias de peso mínimo del vértice recibido
+     * a todos los demás, con el algoritmo de Dijkstra.
+     * @param origen el identificador del vértice inicial.
+     * @return un arreglo con el peso mínimo de una trayectoria a cada
+     *         vértice, o {@link Double#POSITIVE_INFINITY} si el vértice no es
+     *         alcanzable desde el origen.
+     * @throws ExcepcionIndiceInvalido si el identificador no es válido.
+     */
+    public double[] dijkstra(int origen) {
+        return dijkstra(origen, null);
+    }
+
+    /**
+     * Calcula el peso de las trayectorias de peso mínimo del vértice recibido
+     * a todos los demás, con el algoritmo de Dijkstra, y el vértice anterior
+     * a cada uno en su trayectoria. El montículo es un arreglo de enteros con
+     * la posición de cada vértice, así que actualizar una distancia no crea
+     * objetos.
+     * @param origen el identificador del vértice inicial.
+     * @param padres arreglo de longitud igual al número de vértices donde se
+     *               guarda el vértice anterior a cada uno en su trayectoria,
+     *               o -1 para el origen y los vértices no alcanzables. Puede
+     *               ser <code>null</code>.
+     * @return un arreglo con el peso mínimo de una trayectoria a cada
+     *         vértice, o {@link Double#POSITIVE_INFINITY} si el vértice no es
+     *         alcanzable desde el origen.
+     * @throws ExcepcionIndiceInvalido si el identificador no es válido, o si
+     *         el arreglo de padres no tiene la longitud correcta.
+     */
+    public double[] dijkstra(int origen, int[] padres) {
+        verifica(origen);
+        int n = elementos.length;
+        if (padres != null && padres.length != n) {
+            throw new ExcepcionIndiceInvalido();
+        }
+        double[] distancias = new double[n];
+        Arrays.fill(distancias, Double.POSITIVE_INFINITY);
+        if (padres != null) {
+            Arrays.fill(padres, -1);
+        }
+        int[] monticulo = new int[n];
+        int[] posicion = new int[n];
+        Arrays.fill(posicion, -1);
+        int tamano = 0;
+        distancias[origen] = 0;
+        monticulo[tamano] = origen;
+        posicion[origen] = tamano++;
+        while (tamano > 0) {
+            int v = monticulo[0];
+            posicion[v] = -2;
+            if (--tamano > 0) {
+                monticulo[0] = monticulo[tamano];
+                posicion[monticulo[0]] = 0;
+                bajaEnMonticulo(monticulo, posicion, tamano, distancias, 0);
+            }
+            for (int a = desplazamientos[v]; a < desplazamientos[v + 1]; a++) {
+                int w = destinos[a];
+                if (posicion[w] == -2) {
+                    continue;
+                }
+                double d = distancias[v] + pesos[a];
+                if (d < distancias[w]) {
+                    distancias[w] = d;
+                    if (padres != null) {
+                        padres[w] = v;
+                    }
+                    if (posicion[w] == -1) {
+                        monticulo[tamano] = w;
+                        posicion[w] = tamano++;
+                    }
+                    subeEnMonticulo(monticulo, posicion, distancias,
+                                    posicion[w]);
+                }
+            }
+        }
+        return distancias;
+    }
+
+    /* Sube el vértice en la posición i del montículo mínimo mientras sea
+     * menor que su padre. */
+    private static void subeEnMonticulo(int[] monticulo, int[] posicion,
+                                        double[] distancias, int i) {
+        int v = monticulo[i];
+        while (i > 0) {
+            int p = (i - 1) / 2;
+            if (distancias[monticulo[p]] <= distancias[v]) {
+                break;
+            }
+            monticulo[i] = monticulo[p];
+            posicion[monticulo[i]] = i;
+            i = p;
+        }
+        monticulo[i] = v;
+        posicion[v] = i;
+    }
+
+    /* Baja el vértice en la posición i del montículo mínimo mientras sea
+     * mayor que alguno de sus hijos. */
+    private static void bajaEnMonticulo(int[] monticulo, int[] posicion,
+                                        int tamano, double[] distancias,
+                                        int i) {
+        int v = monticulo[i];
+        while (2 * i + 1 < tamano) {
+            int h = 2 * i + 1;
+            if (h + 1 < tamano &&
+                distancias[monticulo[h + 1]] < distancias[monticulo[h]]) {
+                h++;
+            }
+            if (distancias[v] <= distancias[monticulo[h]]) {
+                break;
+            }
+            monticulo[i] = monticulo[h];
+            posicion[monticulo[i]] = i;
+            i = h;
+        }
+        monticulo[i] = v;
+        posicion[v] = i;
+    }
+
+    /**
+     * Calcula las componentes conexas de la gráfica.
+     * @return un arreglo con la componente de cada vértice. Las componentes
+     *         se numeran desde 0, en el orden de su vértice con menor
+     *         identificador.
+     */
+    public int[] componentes() {
+        int n = elementos.length;
+        int[] componente = new int[n];
+        Arrays.fill(componente, -1);
+        int[] cola = new int[n];
+        int c = 0;
+        for (int s = 0; s < n; s++) {
+            if (componente[s] != -1) {
+                continue;
+            }
+            int inicio = 0, fin = 0;
+            cola[fin++] = s;
+            componente[s] = c;
+            while (inicio < fin) {
+                int v = cola[inicio++];
+                for (int a = desplazamientos[v];
+                     a < desplazamientos[v + 1]; a++) {
+                    int w = destinos[a];
+                    if (componente[w] == -1) {
+                        componente[w] = c;
+                        cola[fin++] = w;
+                    }
+                }
+            }
+            c++;
+        }
+        return componente;
+    }
+}
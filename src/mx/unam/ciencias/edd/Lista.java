@@ -16,8 +16,9 @@ import java.util.NoSuchElementException;
  */
 public class Lista<T> implements Coleccion<T> {
 
-    /* Clase Nodo privada para uso interno de la clase Lista. */
-    private class Nodo {
+    /* Clase Nodo para uso interno de la clase Lista; es visible en el paquete
+     * para que otras estructuras puedan recorrer sus listas sin iteradores. */
+    class Nodo {
         public T elemento;
         public Nodo anterior;
         public Nodo siguiente;
@@ -82,8 +83,9 @@ public class Lista<T> implements Coleccion<T> {
         }
     }
 
-    /* Primer elemento de la lista. */
-    private Nodo cabeza;
+    /* Primer elemento de la lista; visible en el paquete por la misma razón
+     * que Nodo. */
+    Nodo cabeza;
     /* Último elemento de la lista. */
     private Nodo rabo;
     /* Número de elementos en la lista. */
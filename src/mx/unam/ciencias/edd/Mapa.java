@@ -0,0 +1,150 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Iterator;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+/**
+ * <p>Interfaz para diccionarios, que asocian valores a llaves. Un mapa
+ * permite agregar, eliminar y buscar valores por su llave, y se itera sobre
+ * sus valores.</p>
+ *
+ * <p>La forma de guardar las llaves se escoge al construir el mapa: {@link
+ * Diccionario} guarda una lista de entradas por cada posición, y {@link
+ * DiccionarioAbierto} guarda las llaves en arreglos con direccionamiento
+ * abierto. Los mapas no aceptan a <code>null</code> como llave ni como
+ * valor.</p>
+ */
+public interface Mapa<K, V> extends Iterable<V> {
+
+    /**
+     * Agrega un nuevo valor al mapa, usando la llave proporcionada. Si la
+     * llave ya había sido utilizada antes para agregar un valor, el mapa
+     * reemplaza ese valor con el recibido aquí.
+     * @param llave la llave para agregar el valor.
+     * @param valor el valor a agregar.
+     * @throws IllegalArgumentException si la llave o el valor son nulos.
+     */
+    public void agrega(K llave, V valor);
+
+    /**
+     * Regresa el valor asociado a la llave; si la llave no está en el mapa,
+     * primero le asocia el valor que regrese el creador. La llave se busca
+     * una sola vez.
+     * @param llave la llave para buscar el valor.
+     * @param creador la función que crea el valor si la llave no está.
+     * @return el valor asociado a la llave.
+     * @throws IllegalArgumentException si la llave o el valor creado son
+     *         nulos.
+     */
+    public V getOAgrega(K llave, Function<? super K, ? extends V> creador);
+
+    /**
+     * Mezcla un valor en el mapa. Si la llave no está, le asocia el valor
+     * recibido; si ya está, le asocia el resultado de combinar el valor que
+     * tenía con el recibido. La llave se busca una sola vez.
+     * @param llave la llave del valor.
+     * @param valor el valor a mezclar.
+     * @param combinador la función que combina el valor anterior con el
+     *        recibido.
+     * @return el valor que queda asociado a la llave.
+     * @throws IllegalArgumentException si la llave, el valor o la combinación
+     *         son nulos.
+     */
+    public V mezcla(K llave, V valor, BinaryOperator<V> combinador);
+
+    /**
+     * Regresa el valor del mapa asociado a la llave proporcionada.
+     * @param llave la llave para buscar el valor.
+     * @return el valor correspondiente a la llave.
+     * @throws NoSuchElementException si la llave no está en el mapa.
+     */
+    public V get(K llave);
+
+    /**
+     * Nos dice si una llave se encuentra en el mapa.
+     * @param llave la llave que queremos ver si está en el mapa.
+     * @return <tt>true</tt> si la llave está en el mapa, <tt>false</tt> en
+     *         otro caso.
+     */
+    public boolean contiene(K llave);
+
+    /**
+     * Elimina el valor del mapa asociado a la llave proporcionada.
+     * @param llave la llave para buscar el valor a eliminar.
+     * @throws NoSuchElementException si la llave no se encuentra en el mapa.
+     */
+    public void elimina(K llave);
+
+    /**
+     * Regresa una lista con todas las llaves con valores asociados en el
+     * mapa. La lista no tiene ningún tipo de orden.
+     * @return una lista con todas las llaves.
+     */
+    public Lista<K> llaves();
+
+    /**
+     * Regresa una lista con todos los valores en el mapa. La lista no tiene
+     * ningún tipo de orden.
+     * @return una lista con todos los valores.
+     */
+    public Lista<V> valores();
+
+    /**
+     * Nos dice cuántas colisiones hay en el mapa.
+     * @return cuántas colisiones hay en el mapa.
+     */
+    public int colisiones();
+
+    /**
+     * Nos dice el máximo número de colisiones para una misma llave que
+     * tenemos en el mapa.
+     * @return el máximo número de colisiones para una misma llave.
+     */
+    public int colisionMaxima();
+
+    /**
+     * Nos dice la carga del mapa.
+     * @return la carga del mapa.
+     */
+    public double carga();
+
+    /**
+     * Regresa el número de entradas en el mapa.
+     * @return el número de entradas en el mapa.
+     */
+    public int getElementos();
+
+    /**
+     * Nos dice si el mapa es vacío.
+     * @return <code>true</code> si el mapa es vacío, <code>false</code> en
+     *         otro caso.
+     */
+    public boolean esVacio();
+
+    /**
+     * Nos dice si el mapa es igual al objeto recibido. Dos mapas son iguales
+     * si tienen las mismas llaves asociadas a los mismos valores, sin
+     * importar cómo guarden sus llaves.
+     * @param o el objeto que queremos saber si es igual al mapa.
+     * @return <code>true</code> si el objeto recibido es un mapa con las
+     *         mismas llaves asociadas a los mismos valores,
+     *         <code>false</code> en otro caso.
+     */
+    @Override public boolean equals(Object o);
+
+    /**
+     * Regresa un picadillo del mapa, consistente con {@link #equals}: es la
+     * suma, para cada llave, del picadillo de la llave combinado con el de
+     * su valor.
+     * @return un picadillo del mapa.
+     */
+    @Override public int hashCode();
+
+    /**
+     * Regresa un iterador para iterar los valores del mapa, sin ningún orden
+     * específico.
+     * @return un iterador para iterar el mapa.
+     */
+    @Override public Iterator<V> iterator();
+}
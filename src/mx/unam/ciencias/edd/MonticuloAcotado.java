@@ -0,0 +1,149 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Clase para seleccionar los <i>k</i> elementos mayores (o menores) de una
+ * secuencia. Guarda a lo más <i>k</i> elementos en un {@link MonticuloMinimo}
+ * cuya raíz es el peor de los que lleva; cada elemento nuevo sólo entra si es
+ * mejor que la raíz, y en ese caso la reemplaza. Seleccionar de <i>n</i>
+ * elementos toma tiempo <i>O</i>(<i>n</i> log <i>k</i>) y espacio
+ * <i>O</i>(<i>k</i>), sin ordenar los <i>n</i> elementos.
+ */
+public class MonticuloAcotado<T extends Comparable<T>> {
+
+    /* Casilla del montículo. Si buscamos los menores, invierte la
+     * comparación para que la raíz sea el mayor de los que llevamos. */
+    private class Casilla implements ComparableIndexable<Casilla> {
+
+        /* El elemento. */
+        public T elemento;
+        /* Su índice. */
+        private int indice;
+
+        /* Construye una casilla para el elemento. */
+        public Casilla(T elemento) {
+            this.elemento = elemento;
+            this.indice = -1;
+        }
+
+        /* Compara los elementos, invirtiendo si buscamos los menores. */
+        @Override public int compareTo(Casilla casilla) {
+            int c = this.elemento.compareTo(casilla.elemento);
+            return mayores ? c : -c;
+        }
+
+        /* Define el índice de la casilla. */
+        @Override public void setIndice(int indice) {
+            this.indice = indice;
+        }
+
+        /* Regresa el índice de la casilla. */
+        @Override public int getIndice() {
+            return indice;
+        }
+    }
+
+    /* El montículo con los mejores elementos vistos; la raíz es el peor. */
+    private MonticuloMinimo<Casilla> monticulo;
+    /* Cuántos elementos guardamos a lo más. */
+    private int k;
+    /* Si buscamos los mayores o los menores. */
+    private boolean mayores;
+
+    /**
+     * Construye un montículo acotado vacío.
+     * @param k cuántos elementos se guardan a lo más.
+     * @param mayores <code>true</code> si se buscan los <i>k</i> mayores,
+     *                <code>false</code> si se buscan los <i>k</i> menores.
+     * @throws IllegalArgumentException si <i>k</i> es menor que uno.
+     */
+    public MonticuloAcotado(int k, boolean mayores) {
+        if (k < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.k = k;
+        this.mayores = mayores;
+        this.monticulo = new MonticuloMinimo<Casilla>();
+    }
+
+    /**
+     * Nos dice si un elemento entraría al montículo; es decir, si todavía no
+     * hay <i>k</i> elementos, o si es mejor que el peor de ellos.
+     * @param elemento el elemento a probar.
+     * @return <code>true</code> si el elemento entraría, <code>false</code>
+     *         en otro caso.
+     */
+    public boolean entraria(T elemento) {
+        if (monticulo.getElementos() < k) {
+            return true;
+        }
+        int c = elemento.compareTo(monticulo.get(0).elemento);
+        return mayores ? c > 0 : c < 0;
+    }
+
+    /**
+     * Regresa el peor de los elementos guardados; el primero que saldría si
+     * entra uno mejor.
+     * @return el peor de los elementos guardados.
+     * @throws java.util.NoSuchElementException si el montículo es vacío.
+     */
+    public T getPeor() {
+        return monticulo.get(0).elemento;
+    }
+
+    /**
+     * Nos dice si el montículo ya tiene <i>k</i> elementos.
+     * @return <code>true</code> si el montículo está lleno,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean estaLleno() {
+        return monticulo.getElementos() == k;
+    }
+
+    /**
+     * Ofrece un elemento al montículo. Si entra y ya había <i>k</i>
+     * elementos, sale el peor de ellos.
+     * @param elemento el elemento a ofrecer.
+     * @return <code>true</code> si el elemento entró, <code>false</code> en
+     *         otro caso.
+     * @throws IllegalArgumentException si el elemento es nulo.
+     */
+    public boolean agrega(T elemento) {
+        if (elemento == null) {
+            throw new IllegalArgumentException();
+        }
+        if (!entraria(elemento)) {
+            return false;
+        }
+        if (estaLleno()) {
+            monticulo.elimina();
+        }
+        monticulo.agrega(new Casilla(elemento));
+        return true;
+    }
+
+    /**
+     * Regresa el número de elementos guardados.
+     * @return el número de elementos guardados.
+     */
+    public int getElementos() {
+        return monticulo.getElementos();
+    }
+
+    /**
+     * Vacía el montículo y regresa sus elementos ordenados de mayor a menor,
+     * en tiempo <i>O</i>(<i>k</i> log <i>k</i>).
+     * @return una lista con los elementos, de mayor a menor.
+     */
+    public Lista<T> vacia() {
+        Lista<T> lista = new Lista<T>();
+        while (!monticulo.esVacio()) {
+            T elemento = monticulo.elimina().elemento;
+            if (mayores) {
+                lista.agregaInicio(elemento);
+            } else {
+                lista.agregaFinal(elemento);
+            }
+        }
+        return lista;
+    }
+}
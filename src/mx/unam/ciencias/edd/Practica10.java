@@ -60,6 +60,23 @@ public class Practica10 {
                           "AVL con %s elementos.\n",
                           (tiempoTotal/1000000000.0), nf.format(N));
 
+        tiempoInicial = System.nanoTime();
+        for (int i = 0; i < N; i += 2)
+            avl.elimina(arreglo[i]);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en buscar y eliminar %s elementos " +
+                          "del árbol AVL.\n",
+                          (tiempoTotal/1000000000.0), nf.format((N+1)/2));
+
+        tiempoInicial = System.nanoTime();
+        ArbolAVL<Integer> avlo = new ArbolAVL<Integer>();
+        for (int i = 0; i < N; i++)
+            avlo.agrega(i);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en llenar un árbol " +
+                          "AVL con %s elementos ordenados.\n",
+                          (tiempoTotal/1000000000.0), nf.format(N));
+
         Diccionario<Integer, Integer> dicc = new Diccionario<Integer, Integer>();
         tiempoInicial = System.nanoTime();
         for (int i = 0; i < N; i++)
@@ -69,6 +86,36 @@ public class Practica10 {
                           "con %s elementos.\n",
                           (tiempoTotal/1000000000.0), nf.format(N));
 
+        Mapa<Integer, Integer> cuentas =
+            new Diccionario<Integer, Integer>();
+        tiempoInicial = System.nanoTime();
+        for (int i = 0; i < N; i++)
+            cuentas.mezcla(arreglo[i], 1, Integer::sum);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en contar las repeticiones de " +
+                          "%s elementos en un diccionario.\n",
+                          (tiempoTotal/1000000000.0), nf.format(N));
+
+        Mapa<Integer, Integer> dicca =
+            new DiccionarioAbierto<Integer, Integer>();
+        tiempoInicial = System.nanoTime();
+        for (int i = 0; i < N; i++)
+            dicca.agrega(arreglo[i], arreglo[i]);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en llenar un diccionario " +
+                          "abierto con %s elementos.\n",
+                          (tiempoTotal/1000000000.0), nf.format(N));
+
+        Mapa<Integer, Integer> cuentasa =
+            new DiccionarioAbierto<Integer, Integer>();
+        tiempoInicial = System.nanoTime();
+        for (int i = 0; i < N; i++)
+            cuentasa.mezcla(arreglo[i], 1, Integer::sum);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en contar las repeticiones de " +
+                          "%s elementos en un diccionario abierto.\n",
+                          (tiempoTotal/1000000000.0), nf.format(N));
+
         Conjunto<Integer> conjunto = new Conjunto<Integer>();
         tiempoInicial = System.nanoTime();
         for (int i = 0; i < N; i++)
@@ -0,0 +1,121 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Clase con las operaciones comunes de las tablas con direccionamiento
+ * abierto y sondeo lineal, como {@link DiccionarioAbierto} y {@link
+ * ContadorPalabras}. Las tablas guardan sus llaves en un arreglo cuya
+ * longitud es una potencia de 2, con <tt>null</tt> en las posiciones libres,
+ * y el picadillo mezclado de cada llave en un arreglo paralelo de enteros.
+ */
+final class SondeoLineal {
+
+    /** Máxima carga permitida por las tablas. */
+    public static final double MAXIMA_CARGA = 0.72;
+
+    /* Tamaño mínimo; decidido arbitrariamente a 2^6. */
+    private static final int MIN_N = 64;
+
+    /* No se crean instancias de esta clase. */
+    private SondeoLineal() {}
+
+    /**
+     * Regresa el tamaño de un arreglo con lugar para al menos
+     * <code>tam</code> llaves sin rebasar la carga máxima. Siempre es una
+     * potencia de 2.
+     * @param tam el número de llaves.
+     * @return el tamaño del arreglo.
+     */
+    public static int tamano(int tam) {
+        int n = MIN_N;
+        while (n * MAXIMA_CARGA <= tam) {
+            n <<= 1;
+        }
+        return n;
+    }
+
+    /**
+     * Mezcla los bits de un picadillo. Lo multiplica por una constante impar
+     * y mezcla los bits altos en los bajos, porque el sondeo lineal sólo usa
+     * los bajos y se amontona si los picadillos se parecen.
+     * @param h el picadillo.
+     * @return el picadillo mezclado.
+     */
+    public static int mezcla(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Regresa la posición que sigue a la posición recibida, dando la vuelta
+     * al final del arreglo.
+     * @param llaves el arreglo de llaves.
+     * @param i la posición.
+     * @return la posición siguiente.
+     */
+    public static int siguiente(Object[] llaves, int i) {
+        return (i + 1) & (llaves.length - 1);
+    }
+
+    /**
+     * Regresa la posición donde está la llave, o la posición libre donde
+     * tendría que ir.
+     * @param llaves el arreglo de llaves.
+     * @param picadillos los picadillos mezclados de las llaves.
+     * @param llave la llave a buscar.
+     * @param h el picadillo mezclado de la llave.
+     * @return la posición de la llave, o la posición libre donde iría.
+     */
+    public static int posicion(Object[] llaves, int[] picadillos,
+                               Object llave, int h) {
+        int i = h & (llaves.length - 1);
+        while (llaves[i] != null) {
+            if (picadillos[i] == h && llaves[i].equals(llave)) {
+                return i;
+            }
+            i = siguiente(llaves, i);
+        }
+        return i;
+    }
+
+    /**
+     * Regresa la primera posición libre para un picadillo. Sirve para
+     * reacomodar las llaves cuando la tabla crece, porque entonces se sabe
+     * que ninguna llave está repetida.
+     * @param llaves el arreglo de llaves.
+     * @param h el picadillo mezclado de la llave.
+     * @return la primera posición libre para el picadillo.
+     */
+    public static int libre(Object[] llaves, int h) {
+        int i = h & (llaves.length - 1);
+        while (llaves[i] != null) {
+            i = siguiente(llaves, i);
+        }
+        return i;
+    }
+
+    /**
+     * Regresa la siguiente posición ocupada a partir de la recibida, o la
+     * longitud del arreglo si ya no hay.
+     * @param llaves el arreglo de llaves.
+     * @param i la posición desde la que se busca.
+     * @return la siguiente posición ocupada.
+     */
+    public static int siguienteOcupada(Object[] llaves, int i) {
+        while (i < llaves.length && llaves[i] == null) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Nos dice si una tabla con el número de llaves recibido tiene que
+     * crecer.
+     * @param elementos el número de llaves en la tabla.
+     * @param llaves el arreglo de llaves.
+     * @return <tt>true</tt> si la tabla llegó a la carga máxima,
+     *         <tt>false</tt> en otro caso.
+     */
+    public static boolean llena(int elementos, Object[] llaves) {
+        return elementos >= MAXIMA_CARGA * llaves.length;
+    }
+}
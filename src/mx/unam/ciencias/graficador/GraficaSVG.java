@@ -52,28 +52,26 @@ public class GraficaSVG implements ImprimeSVG{
     @Override
     public String imprimeSVG(){
 	String[] elementos = new String[grafica.getElementos()];
+	//Posicion de cada elemento en el arreglo, para no buscarlo
+	Mapa<String, Integer> posiciones = new Diccionario<>(elementos.length);
 	int contador = 0;
 	for(String i:grafica){ 
 	    elementos[contador] = i;
+	    posiciones.agrega(i, contador);
 	    contador++;
 	}
 
 	Vector2D[] centros = calculaCentros();
-	//Imprime las aristas
+	//Imprime las aristas; cada una se dibuja desde su extremo con menor
+	//posicion, sin marcar los vertices con colores
 	for(int i = 0;i<elementos.length;i++) {
 	    VerticeGrafica<String> vertice = grafica.vertice(elementos[i]);
-	    vertice.setColor(Color.ROJO);
 	    for(VerticeGrafica<String> vecino:vertice.vecinos()) {
-		if(vecino.getColor()!=Color.ROJO){ 
-		    for(int j =0;j<elementos.length;j++){ 
-			if(vecino.getElemento().equals(elementos[j])) {
-			    LineaSVG line = new LineaSVG(centros[i],centros[j]);
-			   representacion =  representacion+line.imprimeSVG();
-			}
-		    }
-		    
+		int j = posiciones.get(vecino.getElemento());
+		if(j>i){ 
+		    LineaSVG line = new LineaSVG(centros[i],centros[j]);
+		    representacion =  representacion+line.imprimeSVG();
 		}
-		
 	    }
 
 	}
@@ -6,7 +6,7 @@ package mx.unam.ciencias.textAnalyzer;
 public class ArrayString extends Object implements Comparable<ArrayString>{//Extiendo object por legibilidad
     // de codigo ya que sobreescribo mucho metodos
     /** Repeticiones de la palabra*/
-    public Integer repeticiones;
+    public int repeticiones;
     /** String de la clase*/
     protected String string;
 
@@ -25,6 +25,16 @@ public class ArrayString extends Object implements Comparable<ArrayString>{//Ext
         this.repeticiones = 1;
     }
 
+    /**
+     * Constructor que recibe un String y sus repeticiones
+     * @param string el string que se va a contar
+     * @param repeticiones las veces que se ha visto el string
+     */
+    public ArrayString(String string, int repeticiones) {
+        this.string = string;
+        this.repeticiones = repeticiones;
+    }
+
     /**
      * Metodo que devuelve una representacion en cadena del objeto
      * @return una representacion del objeto
@@ -68,9 +78,22 @@ public class ArrayString extends Object implements Comparable<ArrayString>{//Ext
      */
     @Override
     public int compareTo(ArrayString array){
-        if(array.repeticiones.equals(this.repeticiones))
-            return array.string.compareTo(this.string);
+        return compara(string, repeticiones, array);
+    }
+
+    /**
+     * Compara una palabra con sus repeticiones contra un ArrayString, con el
+     * mismo orden que compareTo pero sin tener que crear el objeto
+     * @param string la palabra
+     * @param repeticiones las repeticiones de la palabra
+     * @param array Objeto a comparar
+     * @return un numero menor que 0 si la palabra es menor, mayor que 0 si
+     *         es mayor, 0 si es igual
+     */
+    static int compara(String string, int repeticiones, ArrayString array){
+        if(array.repeticiones == repeticiones)
+            return array.string.compareTo(string);
 
-        return this.repeticiones.compareTo(array.repeticiones);
+        return Integer.compare(repeticiones, array.repeticiones);
     }
 }
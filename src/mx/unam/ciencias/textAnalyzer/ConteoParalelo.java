@@ -0,0 +1,150 @@
+package mx.unam.ciencias.textAnalyzer;
+
+import mx.unam.ciencias.edd.ContadorPalabras;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Clase que cuenta las palabras de un archivo en paralelo. El archivo se parte
+ * en rangos de bytes que empiezan en un separador, cada rango se cuenta en una
+ * tarea de un {@link ForkJoinPool} con su propio contador, y los
+ * contadores parciales se suman al final. El resultado es el mismo que el
+ * de contar el archivo completo de forma secuencial.
+ */
+public class ConteoParalelo
+    extends RecursiveTask<ContadorPalabras> {
+
+    /* Version para serializar; las tareas nunca se serializan */
+    private static final long serialVersionUID = 1L;
+
+    /** Tamaño en bytes a partir del cual un rango ya no se divide. */
+    public static final long UMBRAL = 1 << 23;
+    /* Cuantos bytes se leen a la vez al buscar un separador. */
+    private static final int BUSQUEDA = 256;
+
+    /** Canal del archivo, compartido por todas las tareas */
+    private FileChannel canal;
+    /** Lector que decodifica los rangos */
+    private LectorMapeado lector;
+    /** Primer byte del rango */
+    private long desde;
+    /** Uno despues del ultimo byte del rango */
+    private long hasta;
+
+    /* Construye la tarea para el rango [desde, hasta). */
+    private ConteoParalelo(FileChannel canal, LectorMapeado lector,
+                           long desde, long hasta) {
+        this.canal = canal;
+        this.lector = lector;
+        this.desde = desde;
+        this.hasta = hasta;
+    }
+
+    /**
+     * Cuenta las palabras del archivo. Solo las codificaciones en las que un
+     * byte ASCII siempre es un caracter completo (UTF-8, ISO-8859-1 y
+     * US-ASCII) se pueden partir por bytes; con cualquier otra el archivo se
+     * cuenta en una sola tarea.
+     * @param archivo el archivo a contar
+     * @param codificacion la codificacion del archivo
+     * @return contador con las repeticiones de cada palabra
+     * @throws IOException si el archivo no se puede leer
+     */
+    public static ContadorPalabras cuenta(File archivo, Charset codificacion)
+        throws IOException {
+        FileChannel canal = FileChannel.open(archivo.toPath(),
+                                             StandardOpenOption.READ);
+        try {
+            LectorMapeado lector = new LectorMapeado(archivo, codificacion);
+            long tam = canal.size();
+            if (!sePuedePartir(codificacion)) {
+                ContadorPalabras conteo = new ContadorPalabras();
+                lector.lee(canal, 0, tam, TextAnalyzer.contador(conteo));
+                return conteo;
+            }
+            return ForkJoinPool.commonPool().invoke(
+                new ConteoParalelo(canal, lector, 0, tam));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            canal.close();
+        }
+    }
+
+    /* Nos dice si en la codificacion los bytes ASCII son caracteres. */
+    private static boolean sePuedePartir(Charset codificacion) {
+        return codificacion.equals(StandardCharsets.UTF_8) ||
+            codificacion.equals(StandardCharsets.ISO_8859_1) ||
+            codificacion.equals(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Cuenta el rango; si es muy grande lo parte en dos por un separador y
+     * cuenta las mitades en paralelo.
+     * @return contador con las repeticiones del rango
+     */
+    @Override
+    protected ContadorPalabras compute() {
+        try {
+            if (hasta - desde > UMBRAL) {
+                long mitad = separador(desde + (hasta - desde) / 2);
+                if (mitad < hasta) {
+                    ConteoParalelo izquierda =
+                        new ConteoParalelo(canal, lector, desde, mitad);
+                    ConteoParalelo derecha =
+                        new ConteoParalelo(canal, lector, mitad, hasta);
+                    izquierda.fork();
+                    ContadorPalabras d = derecha.compute();
+                    return mezcla(izquierda.join(), d);
+                }
+            }
+            ContadorPalabras conteo = new ContadorPalabras();
+            lector.lee(canal, desde, hasta, TextAnalyzer.contador(conteo));
+            return conteo;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /* Regresa la posicion del primer byte ASCII que no es letra ni digito a
+     * partir de la recibida, o hasta si no hay ninguno. */
+    private long separador(long posicion) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(BUSQUEDA);
+        while (posicion < hasta) {
+            bytes.clear();
+            if (hasta - posicion < BUSQUEDA)
+                bytes.limit((int)(hasta - posicion));
+            int leidos = canal.read(bytes, posicion);
+            if (leidos <= 0)
+                break;
+            for (int i = 0; i < leidos; i++) {
+                byte b = bytes.get(i);
+                if (b >= 0 && !Character.isLetterOrDigit(b))
+                    return posicion + i;
+            }
+            posicion += leidos;
+        }
+        return hasta;
+    }
+
+    /* Suma las repeticiones del contador mas chico al mas grande. */
+    private static ContadorPalabras mezcla(ContadorPalabras a,
+                                           ContadorPalabras b) {
+        if (a.getElementos() < b.getElementos()) {
+            ContadorPalabras t = a;
+            a = b;
+            b = t;
+        }
+        a.suma(b);
+        return a;
+    }
+}
@@ -0,0 +1,203 @@
+package mx.unam.ciencias.textAnalyzer;
+
+import mx.unam.ciencias.edd.ContadorPalabras;
+import mx.unam.ciencias.edd.ExcepcionIndiceInvalido;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Clase que ordena las palabras de un contador en el mismo orden que
+ * {@link ArrayString#compareTo}, de la menos repetida a la mas repetida, sin
+ * compararlas todas entre si. Como las repeticiones son enteros, las palabras
+ * se reparten en cubetas por repeticiones con un ordenamiento por residuos
+ * (<i>radix sort</i>) de 16 bits por pasada, que para menos de 65536
+ * repeticiones es un solo ordenamiento por cuentas; despues solo se ordenan
+ * alfabeticamente las palabras dentro de cada cubeta.
+ */
+public class IndiceFrecuencias implements Iterable<ArrayString> {
+
+    /* Bits de las repeticiones que se ordenan en cada pasada. */
+    private static final int BITS = 16;
+    /* Mascara para sacar los bits de una pasada. */
+    private static final int MASCARA = (1 << BITS) - 1;
+
+    /* Clase privada para iteradores del indice. */
+    private class Iterador implements Iterator<ArrayString> {
+
+        /* El indice del siguiente elemento. */
+        private int siguiente;
+
+        /* Nos dice si hay un siguiente elemento. */
+        @Override public boolean hasNext() {
+            return siguiente < palabras.length;
+        }
+
+        /* Regresa el siguiente elemento. */
+        @Override public ArrayString next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            return palabras[siguiente++];
+        }
+
+        /* No lo implementamos: siempre lanza una excepción. */
+        @Override public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /** Las palabras, de la menos repetida a la mas repetida */
+    private ArrayString[] palabras;
+
+    /**
+     * Constructor que ordena las palabras del contador en tiempo lineal en el
+     * numero de palabras, mas lo que cueste ordenar alfabeticamente cada
+     * cubeta
+     * @param conteo Contador con las repeticiones de cada palabra
+     */
+    public IndiceFrecuencias(ContadorPalabras conteo) {
+        ArrayString[] palabras = new ArrayString[conteo.getElementos()];
+        int[] i = { 0 };//la lambda no puede modificar un int local
+        conteo.paraCada((palabra, cuenta) ->
+                        palabras[i[0]++] = new ArrayString(palabra, cuenta));
+        this.palabras = ordenaPorRepeticiones(palabras);
+        ordenaCubetas(this.palabras);
+    }
+
+    /* Ordena de forma estable por repeticiones, con pasadas de ordenamiento
+     * por cuentas sobre BITS bits a la vez. */
+    private static ArrayString[] ordenaPorRepeticiones(ArrayString[] a) {
+        int maximo = 0;
+        for (ArrayString p : a)
+            maximo = Math.max(maximo, p.repeticiones);
+        ArrayString[] b = new ArrayString[a.length];
+        int corrimiento = 0;
+        do {
+            int[] cubetas = new int[MASCARA + 2];
+            for (ArrayString p : a)
+                cubetas[((p.repeticiones >>> corrimiento) & MASCARA) + 1]++;
+            for (int i = 1; i < cubetas.length; i++)
+                cubetas[i] += cubetas[i - 1];
+            for (ArrayString p : a)
+                b[cubetas[(p.repeticiones >>> corrimiento) & MASCARA]++] = p;
+            ArrayString[] t = a;
+            a = b;
+            b = t;
+            corrimiento += BITS;
+        } while (corrimiento < Integer.SIZE && (maximo >>> corrimiento) != 0);
+        return a;
+    }
+
+    /* Ordena cada cubeta de palabras con las mismas repeticiones con
+     * compareTo, que entre ellas solo compara las cadenas. */
+    private static void ordenaCubetas(ArrayString[] a) {
+        int i = 0;
+        while (i < a.length) {
+            int j = i + 1;
+            while (j < a.length && a[j].repeticiones == a[i].repeticiones)
+                j++;
+            if (j - i > 1)
+                Arrays.sort(a, i, j);
+            i = j;
+        }
+    }
+
+    /**
+     * Regresa el numero de palabras en el indice
+     * @return el numero de palabras
+     */
+    public int getElementos() {
+        return palabras.length;
+    }
+
+    /**
+     * Regresa la palabra con el indice recibido, en el orden de compareTo
+     * @param i el indice de la palabra, empezando en 0 con la menos repetida
+     * @return la palabra con el indice recibido
+     * @throws ExcepcionIndiceInvalido si el indice es menor que cero o mayor
+     *         o igual que el numero de palabras
+     */
+    public ArrayString get(int i) {
+        if (i < 0 || i >= palabras.length)
+            throw new ExcepcionIndiceInvalido();
+        return palabras[i];
+    }
+
+    /**
+     * Regresa un arreglo nuevo con las palabras con indices entre desde
+     * (inclusive) y hasta (exclusive), en el orden de compareTo; sirve para
+     * construir arboles en bloque
+     * @param desde el indice de la primera palabra
+     * @param hasta uno mas que el indice de la ultima palabra
+     * @return arreglo con las palabras
+     * @throws ExcepcionIndiceInvalido si los indices no son validos
+     */
+    public ArrayString[] rebanada(int desde, int hasta) {
+        if (desde < 0 || hasta > palabras.length || desde > hasta)
+            throw new ExcepcionIndiceInvalido();
+        return Arrays.copyOfRange(palabras, desde, hasta);
+    }
+
+    /**
+     * Regresa cuantas palabras del indice son menores que la palabra con las
+     * repeticiones recibidas; si la palabra esta en el indice, es su indice.
+     * Usa busqueda binaria, asi que toma tiempo O(log V)
+     * @param palabra la palabra
+     * @param repeticiones las repeticiones de la palabra
+     * @return el numero de palabras menores
+     */
+    public int rango(String palabra, int repeticiones) {
+        int a = 0, b = palabras.length;
+        while (a < b) {
+            int m = (a + b) >>> 1;
+            if (ArrayString.compara(palabra, repeticiones, palabras[m]) > 0)
+                a = m + 1;
+            else
+                b = m;
+        }
+        return a;
+    }
+
+    /**
+     * Metodo Equals para comparar 2 indices
+     * @param objeto Objeto a comparar
+     * @return true si el objeto es un indice con las mismas palabras y las
+     *         mismas repeticiones
+     */
+    @Override
+    public boolean equals(Object objeto) {
+        if (!(objeto instanceof IndiceFrecuencias))
+            return false;
+        ArrayString[] otras = ((IndiceFrecuencias)objeto).palabras;
+        if (otras.length != palabras.length)
+            return false;
+        for (int i = 0; i < palabras.length; i++)
+            if (!palabras[i].equals(otras[i]) ||
+                palabras[i].repeticiones != otras[i].repeticiones)
+                return false;
+        return true;
+    }
+
+    /**
+     * Regresa un entero a partir de las palabras y sus repeticiones
+     * @return Huella digital del indice
+     */
+    @Override
+    public int hashCode() {
+        int h = 1;
+        for (ArrayString p : palabras)
+            h = 31 * h + p.hashCode() + p.repeticiones;
+        return h;
+    }
+
+    /**
+     * Regresa un iterador que recorre las palabras de la menos repetida a la
+     * mas repetida
+     * @return un iterador para el indice
+     */
+    @Override
+    public Iterator<ArrayString> iterator() {
+        return new Iterador();
+    }
+}
@@ -0,0 +1,96 @@
+package mx.unam.ciencias.textAnalyzer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Clase que lee un archivo mapeandolo en memoria por ventanas grandes y
+ * decodificando los bytes directamente del mapeo, sin pasar por lineas.
+ * Los caracteres decodificados se le entregan a un {@link Tokenizador}.
+ */
+public class LectorMapeado {
+
+    /** Tamaño en bytes de cada ventana del archivo que se mapea. */
+    public static final int VENTANA = 1 << 26;
+    /* Tamaño del bloque de caracteres decodificados. */
+    private static final int BLOQUE = 1 << 16;
+
+    /** Archivo a leer */
+    private File archivo;
+    /** Codificacion del archivo */
+    private Charset codificacion;
+
+    /**
+     * Constructor que recibe el archivo y su codificacion
+     * @param archivo el archivo a leer
+     * @param codificacion la codificacion del archivo, por ejemplo UTF-8 o
+     *                     ISO-8859-1
+     */
+    public LectorMapeado(File archivo, Charset codificacion) {
+        this.archivo = archivo;
+        this.codificacion = codificacion;
+    }
+
+    /**
+     * Lee todo el archivo y le entrega sus caracteres al tokenizador, que al
+     * final queda terminado.
+     * @param tokenizador el tokenizador que recibe los caracteres
+     * @throws IOException si el archivo no se puede mapear o leer
+     */
+    public void lee(Tokenizador tokenizador) throws IOException {
+        FileChannel canal = FileChannel.open(archivo.toPath(),
+                                             StandardOpenOption.READ);
+        try {
+            lee(canal, 0, canal.size(), tokenizador);
+        } finally {
+            canal.close();
+        }
+    }
+
+    /**
+     * Lee los bytes en [desde, hasta) del canal. Cada ventana nueva empieza
+     * donde la anterior dejo de decodificar, asi que un caracter de varios
+     * bytes partido entre dos ventanas se decodifica completo en la segunda.
+     */
+    void lee(FileChannel canal, long desde, long hasta,
+             Tokenizador tokenizador) throws IOException {
+        CharsetDecoder decodificador = codificacion.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        CharBuffer caracteres = CharBuffer.allocate(BLOQUE);
+        long posicion = desde;
+        boolean fin;
+        do {
+            long tam = Math.min(VENTANA, hasta - posicion);
+            fin = posicion + tam == hasta;
+            MappedByteBuffer bytes =
+                canal.map(FileChannel.MapMode.READ_ONLY, posicion, tam);
+            CoderResult resultado;
+            do {
+                resultado = decodificador.decode(bytes, caracteres, fin);
+                entrega(caracteres, tokenizador);
+            } while (resultado.isOverflow());
+            posicion += bytes.position();
+        } while (!fin);
+        while (decodificador.flush(caracteres).isOverflow())
+            entrega(caracteres, tokenizador);
+        entrega(caracteres, tokenizador);
+        tokenizador.termina();
+    }
+
+    /* Le pasa al tokenizador los caracteres decodificados y vacia el bloque. */
+    private void entrega(CharBuffer caracteres, Tokenizador tokenizador) {
+        caracteres.flip();
+        tokenizador.alimenta(caracteres.array(), caracteres.arrayOffset(),
+                             caracteres.arrayOffset() + caracteres.limit());
+        caracteres.clear();
+    }
+}
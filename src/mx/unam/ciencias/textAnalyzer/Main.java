@@ -7,6 +7,11 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * @author iabin
@@ -19,19 +24,24 @@ public class Main {
     /**
      * Main de la clase,
      * @param args Argumentos de la entrada, recibe n archivos de texto plano y un directorio,
-     *             en caso de no ingresar directorio se escribira sobre el home
+     *             en caso de no ingresar directorio se escribira sobre el home.
+     *             Con la bandera -m CODIFICACION (UTF-8, ISO-8859-1...) los archivos
+     *             se leen mapeados en memoria con esa codificacion, y con -p N se
+     *             analizan N archivos a la vez
      */
     public static void main(String[] args) {
 	if(args.length==0)
 	    System.err.println("DEBE INGRESAR AL MENOS UN ARCHIVO");
-        int contador = 0;
         Lista<File> archivos = new Lista<>();
         File directorio = new File(".");
         String dir = ".";
-        for(String argumento:args) {
+        Charset codificacion = null;
+        int hilos = 1;
+        for(int k = 0; k < args.length; k++) {
+            String argumento = args[k];
             if(argumento.equals("-o")) {
                 try {
-                    dir = args[contador + 1];
+                    dir = args[++k];
                     directorio = new File(dir);
                     continue;
                 } catch (ArrayIndexOutOfBoundsException e) {
@@ -39,51 +49,86 @@ public class Main {
                     continue;
                 }
             }
-            if(argumento.equals(dir))
-                continue;
+            if(argumento.equals("-m")) {
+                try {
+                    codificacion = Charset.forName(args[++k]);
+                    continue;
+                } catch (ArrayIndexOutOfBoundsException e) {
+                    System.err.println("NO INGRESÓ UNA CODIFICACION DESPUES DE LA BANDERA -m");
+                    continue;
+                } catch (IllegalArgumentException e) {
+                    System.err.println("CODIFICACION DESCONOCIDA: " + args[k]);
+                    return;
+                }
+            }
+
+            if(argumento.equals("-p")) {
+                try {
+                    hilos = Integer.parseInt(args[++k]);
+                    if(hilos < 1)
+                        throw new NumberFormatException();
+                    continue;
+                } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+                    System.err.println("LA BANDERA -p NECESITA UN NUMERO DE HILOS MAYOR A 0");
+                    return;
+                }
+            }
 
             archivos.agrega(new File(argumento));
-            contador++;
         }
         if(archivos.getLongitud()==0) {
             System.err.println("NO INGRESÓ NINGÚN ARCHIVO");
         }
-        Pila<Object[]> lisp = new Pila<>();
+        if(!archivos.esVacio() && !directorio.exists()) {
+            BufferedReader bf = new BufferedReader(new InputStreamReader(System.in));
+            System.out.println("DESEA CREAR EL DIRECTORIO   " + directorio + "\n "+ "Y/N");
+            try {
+                if (bf.readLine().equalsIgnoreCase("y"))
+                    directorio.mkdirs();
+                else{
+                    return;
+                }
+            }catch (IOException e) {
+                System.err.println("Error leyendo la entrada estandard");
+            }
+        }
+
+        //Cada archivo se analiza y se escribe en un hilo del pool; los
+        //resultados se recogen en el orden de los argumentos
+        ExecutorService trabajadores = Executors.newFixedThreadPool(hilos);
+        Charset cod = codificacion;
+        Lista<Object[]> pendientes = new Lista<>();
         int i = 1;
-        Lista<File> errores = new Lista<>();
         for (File o:archivos) {
             if(!o.isFile()) {
-                errores.agrega(o);
                 System.err.println("el " + i + "-ésimo archivo está mal :'v");
-            }
-
-
-            if(!directorio.exists()) {
-                BufferedReader bf = new BufferedReader(new InputStreamReader(System.in));
-                System.out.println("DESEA CREAR EL DIRECTORIO   " + directorio + "\n "+ "Y/N");
-                try {
-                    if (bf.readLine().equalsIgnoreCase("y"))
-                        directorio.mkdirs();
-                    else{
-                        return;
-                    }
-                }catch (IOException e) {
-                    System.err.println("Error leyendo la entrada estandard");
-                }
-            }
-
-            if(errores.contiene(o))
                 continue;
-
-            TextAnalyzer tex = new TextAnalyzer(o);
+            }
             String zz = "/archivo"+i+".html";
-            String z = (directorio.toString()+zz);
+            File z = new File(directorio.toString()+zz);
+            Future<TextAnalyzer> tex = trabajadores.submit(() -> analiza(o, cod, z));
             Object[] aaaa={zz, tex};
-            lisp.mete(aaaa);
-            String inicior = "<meta charset=\"utf-8\" />\n";
-            Escritor escritor = new Escritor(new File(z),inicior+tex.html());
+            pendientes.agrega(aaaa);
             i++;
         }
+        trabajadores.shutdown();
+
+        Pila<Object[]> lisp = new Pila<>();
+        for (Object[] p : pendientes) {
+            @SuppressWarnings("unchecked") Future<TextAnalyzer> tex = (Future<TextAnalyzer>) p[1];
+            try {
+                Object[] aaaa={p[0], tex.get()};
+                lisp.mete(aaaa);
+            } catch (ExecutionException e) {
+                System.err.println("ERROR ANALIZANDO " + p[0] + ": " + e.getCause());
+            } catch (InterruptedException e) {
+                //Si nos interrumpen ya no esperamos a los demas archivos
+                Thread.currentThread().interrupt();
+                trabajadores.shutdownNow();
+                System.err.println("ANALISIS INTERRUMPIDO EN " + p[0]);
+                break;
+            }
+        }
 
         Grafica<String> graf = new Grafica<>();
 	String nuevo = "";
@@ -110,4 +155,18 @@ public class Main {
         String inicior = "<meta charset=\"utf-8\" />\n";
         Escritor h = new Escritor(new File(directorio.toString()+"/index.html"),inicior+nuevo+ahoraSi.imprimeSVG());
     }
+
+    /**
+     * Analiza un archivo y escribe su representacion en HTML
+     * @param archivo Archivo a analizar
+     * @param codificacion Codificacion para leerlo mapeado, o null
+     * @param salida Archivo HTML donde se escribira el resultado
+     * @return El TextAnalyzer del archivo
+     */
+    private static TextAnalyzer analiza(File archivo, Charset codificacion, File salida) {
+        TextAnalyzer tex = new TextAnalyzer(archivo, codificacion);
+        String inicior = "<meta charset=\"utf-8\" />\n";
+        Escritor escritor = new Escritor(salida,inicior+tex.html());
+        return tex;
+    }
 }
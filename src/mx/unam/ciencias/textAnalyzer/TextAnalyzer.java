@@ -2,21 +2,25 @@ package mx.unam.ciencias.textAnalyzer;
 import mx.unam.ciencias.edd.*;
 import mx.unam.ciencias.graficador.*;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
-import java.text.Normalizer;
+import java.nio.charset.Charset;
+import java.util.NoSuchElementException;
 
 /**
  * Clase que modela un Analizador de textos, recibe un file y regresa una serie de estadisticas
  */
 public class TextAnalyzer {
-    //Genera un conjunto y da contiene en tiempo constante
-    private Diccionario<String,ArrayString> diccionario;
-    /** ArbolAVL usado para ordenar los elementos*/
+    //Cuenta las palabras y da contiene en tiempo constante
+    private ContadorPalabras conteo;
+    /** ArbolAVL con los elementos, solo se construye si se pide con
+     * {@link #arbol()}; el orden de los metodos lo da el indice*/
     protected ArbolAVL<ArrayString> arbol;//Prefiero usar el AVL porque el tiempo es menor
     // en sus operaciones, las cuales se usaran mucho
+    /**Palabras ordenadas por cubetas de repeticiones, se construye cuando se
+     * necesita el orden; usar {@link #indice()}*/
+    private IndiceFrecuencias indice;
     /**Numero de palabras diferentes */
     private int elementos;
     /**Archivo del cual se analizara*/
@@ -27,7 +31,7 @@ public class TextAnalyzer {
      */
     public TextAnalyzer() {
         elementos = 0;
-        diccionario = new Diccionario<>();
+        conteo = new ContadorPalabras();
         arbol = new ArbolAVL<>();
         file = new File("");
     }
@@ -37,94 +41,206 @@ public class TextAnalyzer {
      * @param archivo
      */
     public TextAnalyzer(File archivo) {
+        this(archivo, null);
+    }
+
+    /**
+     * Constructor que recibe un File y analiza el texto mapeando el archivo en
+     * memoria y decodificando sus bytes con la codificacion recibida. Los
+     * archivos grandes se parten y se cuentan en paralelo.
+     * @param archivo
+     * @param codificacion Codificacion del archivo, en caso de ser null el
+     *                     archivo se lee con un FileReader
+     */
+    public TextAnalyzer(File archivo, Charset codificacion) {
         this.file = archivo;
-        ArbolBinarioCompleto<String> aux = new ArbolBinarioCompleto<>();
-        Diccionario<String,ArrayString> dic = new Diccionario<>();
+        ContadorPalabras conteo = new ContadorPalabras();
 
         try{
-            BufferedReader br = new BufferedReader(new FileReader(archivo));
-            String linea;
-            while((linea = br.readLine()) != null) {
-                String nuevaLinea = linea.replaceAll("[^\\p{L}\\p{Nd}]+", " ");
-                nuevaLinea = Normalizer.normalize(nuevaLinea, Normalizer.Form.NFD).replaceAll("\\p{InCombiningDiacriticalMarks}+", "");
-                String[] palabrasSeparadas = nuevaLinea.split(" ");
-                for (String palabra : palabrasSeparadas) {
-                    if(palabra.length()>2)
-                        aux.agrega(palabra);
-                }
-
+            if(codificacion == null) {
+                FileReader lector = new FileReader(archivo);
+                contador(conteo).lee(lector);
+                lector.close();
+            }else {
+                conteo = ConteoParalelo.cuenta(archivo, codificacion);
             }
-	    dic = new Diccionario<>(aux.getElementos());
-            for (String palabra:aux) {
-                if(!palabra.equals("")) {
-                    if(dic.contiene(palabra)) {
-                        dic.get(palabra).repeticiones++;
-                    }else {
-                        dic.agrega(palabra,new ArrayString(palabra));
-                    }
-                }
-
-            }
-            br.close();
         } catch (IOException e){
             System.err.println("ERROR EN LA LECTURA DE ARCHIVO");
         }
-        this.diccionario = dic;
-        ArbolAVL<ArrayString> af = new ArbolAVL<>();
-        for(ArrayString f : dic)
-            af.agrega(f);
-        this.elementos = af.getElementos();
-        this.arbol = af;
+        this.conteo = conteo;
+        this.elementos = conteo.getElementos();
+    }
+
+    /**
+     * Regresa el arbol con todas las palabras ordenadas, construyendolo la
+     * primera vez que se necesita. Como el indice ya esta ordenado, el arbol
+     * se construye en bloque en tiempo lineal
+     * @return ArbolAVL con todas las palabras
+     */
+    protected ArbolAVL<ArrayString> arbol() {
+        if (arbol == null)
+            arbol = ArbolAVL.deOrdenados(indice().rebanada(0, elementos));
+        return arbol;
+    }
+
+    /**
+     * Regresa el indice con todas las palabras ordenadas por repeticiones,
+     * construyendolo la primera vez que se necesita
+     * @return IndiceFrecuencias con todas las palabras
+     */
+    private IndiceFrecuencias indice() {
+        if (indice == null)
+            indice = new IndiceFrecuencias(conteo);
+        return indice;
+    }
+
+    /**
+     * Metodo auxiliar que crea un tokenizador que cuenta cada palabra en el
+     * contador en cuanto la lee, asi la memoria depende del numero de
+     * palabras distintas y no del tamaño del archivo. Las palabras se buscan
+     * directamente en el arreglo del tokenizador, y solo se crea una cadena
+     * la primera vez que aparece cada una
+     * @param conteo Contador con las repeticiones de cada palabra
+     * @return Tokenizador que cuenta en el contador
+     */
+    static Tokenizador contador(ContadorPalabras conteo) {
+        return new Tokenizador(conteo::incrementa);
     }
 
     /**Imprime en la salida estandar tadas las palabras y e
      * numero de repeticiones.
      */
     public void imprime() {
-        for (ArrayString g:arbol) {
+        for (ArrayString g:indice()) {
             System.out.println("PALABRA: "+g.string+"     REPETICIONES: "+g.repeticiones);
         }
     }
 
     /**
-     * Metodo que regresa una lista con las "n" palabras menos repetidas
+     * Metodo que regresa una lista con las "n" palabras menos repetidas. Si el
+     * indice ya existe se toman sus primeros n elementos; si no, y no se piden
+     * todas, se seleccionan con un monticulo de tamaño n en tiempo
+     * O(V log n), sin ordenar todas las palabras
      * @param n Tamaño de la lista que regresara
      * @return Lista con los n elementos menos repetidos
      */
     public Lista<ArrayString> losMenosRepetidos(int n) {
-        if(n<1||n>arbol.getElementos())
+        if(n<1||n>elementos)
             throw new IllegalArgumentException();
-        int i = 1;
+        if(indice==null&&n<elementos)
+            return selecciona(n, false);
         Lista<ArrayString> lista = new Lista<>();
-        for(ArrayString hh : arbol) {
-            if(i<=n){
-                lista.agregaInicio(hh);
-                i++;
-            }else{ break;}
-        }
+        for(int i = n-1; i >= 0; i--)
+            lista.agregaFinal(indice().get(i));
         return lista;
     }
 
     /**
-     * Metodo que regresa los n elementos Mas repetidos en un archivo
+     * Metodo que regresa los n elementos Mas repetidos en un archivo. Si el
+     * indice ya existe se toman sus ultimos n elementos en O(n); si no, y no
+     * se piden todos, se seleccionan con un monticulo de tamaño n en tiempo
+     * O(V log n), sin ordenar todas las palabras
      * @param n Tamaño de la lista
      * @return Lista con los n elementos mas repetidos en un archivo
      */
     public Lista<ArrayString> losMasRepetidos(int n) {
-        if(n<1||n>arbol.getElementos())
-            n=arbol.getElementos();
-        int i = arbol.getElementos();
+        if(n<1||n>elementos)
+            n=elementos;
+        if(indice==null&&n>0&&n<elementos)
+            return selecciona(n, true);
         //Podria haber sido un arreglo, pero creo que ambos disfrutamos mas de esta bonita lista
         Lista<ArrayString> lista = new Lista<>();
-        for(ArrayString hh : arbol) {
-            if(i<=n){
-                lista.agregaInicio(hh);
-            }
-            i--;
-        }
+        for(int i = elementos-1; i >= elementos-n; i--)
+            lista.agregaFinal(indice().get(i));
         return lista;
     }
 
+    /**
+     * Metodo que regresa el lugar de una palabra en el ranking de las mas
+     * repetidas, donde la mas repetida tiene el lugar 1. Hace una busqueda
+     * binaria en el indice, asi que toma tiempo O(log V) una vez construido
+     * @param palabra La palabra a buscar
+     * @return El lugar de la palabra en el ranking
+     * @throws NoSuchElementException si la palabra no esta en el texto
+     */
+    public int lugar(String palabra) {
+        int cuenta = conteo.get(palabra);
+        if(cuenta==0)
+            throw new NoSuchElementException();
+        return elementos - indice().rango(palabra, cuenta);
+    }
+
+    /**
+     * Metodo que regresa una pagina del ranking de las palabras mas
+     * repetidas: las palabras con lugar entre desde y hasta (inclusive), de
+     * la mas repetida a la menos repetida. Toma tiempo O(k), donde k es el
+     * tamaño de la pagina
+     * @param desde El primer lugar de la pagina, empezando en 1
+     * @param hasta El ultimo lugar de la pagina; si es mayor que el numero
+     *              de palabras, la pagina termina en la ultima
+     * @return Lista con las palabras de la pagina
+     * @throws IllegalArgumentException si desde es menor que 1 o mayor que
+     *         hasta
+     */
+    public Lista<ArrayString> pagina(int desde, int hasta) {
+        if(desde<1||desde>hasta)
+            throw new IllegalArgumentException();
+        hasta = Math.min(hasta, elementos);
+        Lista<ArrayString> lista = new Lista<>();
+        if(desde>hasta)
+            return lista;
+        for(int i = elementos-desde; i >= elementos-hasta; i--)
+            lista.agregaFinal(indice().get(i));
+        return lista;
+    }
+
+    /**
+     * Metodo que regresa las palabras que se repiten entre a y b veces
+     * (inclusive), de la mas repetida a la menos repetida. Usa la vista por
+     * rango del arbol, que solo visita los O(log V + k) vertices necesarios,
+     * donde k es el numero de palabras en la banda
+     * @param a El minimo de repeticiones
+     * @param b El maximo de repeticiones
+     * @return Lista con las palabras de la banda
+     * @throws IllegalArgumentException si a es mayor que b
+     */
+    public Lista<ArrayString> conRepeticionesEntre(int a, int b) {
+        if(a>b)
+            throw new IllegalArgumentException();
+        Lista<ArrayString> lista = new Lista<>();
+        if(b<1)
+            return lista;
+        //Entre palabras con las mismas repeticiones la cadena vacia es la
+        //mayor, y ninguna palabra es vacia: asi las cotas no son palabras
+        ArrayString desde = new ArrayString("", Math.max(a, 1)-1);
+        ArrayString hasta = new ArrayString("", b);
+        for(ArrayString palabra : arbol().rango(desde, false, hasta, true))
+            lista.agregaInicio(palabra);
+        return lista;
+    }
+
+    /**
+     * Metodo auxiliar que recorre el contador una vez guardando las n
+     * palabras mas (o menos) repetidas en un monticulo acotado. Solo se crea
+     * el ArrayString de las palabras que entran al monticulo
+     * @param n Cuantas palabras seleccionar
+     * @param mas Si se buscan las mas repetidas o las menos repetidas
+     * @return Lista con las n palabras en el mismo orden que losMasRepetidos
+     *         y losMenosRepetidos
+     */
+    private Lista<ArrayString> selecciona(int n, boolean mas) {
+        MonticuloAcotado<ArrayString> monticulo = new MonticuloAcotado<>(n, mas);
+        conteo.paraCada((palabra, cuenta) -> {
+                if(monticulo.estaLleno()){
+                    int c = ArrayString.compara(palabra, cuenta, monticulo.getPeor());
+                    if(mas ? c <= 0 : c >= 0)
+                        return;
+                }
+                monticulo.agrega(new ArrayString(palabra, cuenta));
+            });
+        return monticulo.vacia();
+    }
+
     /**
      * Metodo que sobre escribe
      * @param e Objeto e a comparar
@@ -136,7 +252,7 @@ public class TextAnalyzer {
         if(e.getClass()!=this.getClass())
             return false;
         TextAnalyzer o = (TextAnalyzer) e;
-        return o.arbol.equals(this.arbol);
+        return o.indice().equals(this.indice());
 
     }
 
@@ -147,12 +263,10 @@ public class TextAnalyzer {
      */
     public Lista<ArrayString> enComun(TextAnalyzer texto){
         Lista<ArrayString> lista = new Lista<>();
-        for (ArrayString g : this.diccionario){
-            if(g.string.length()<5)
-                continue;
-            if(texto.diccionario.contiene(g.string))
-                lista.agrega(g);
-        }
+        conteo.paraCada((palabra, cuenta) -> {
+                if(palabra.length()>=5 && texto.conteo.contiene(palabra))
+                    lista.agrega(new ArrayString(palabra, cuenta));
+            });
         return lista;
 
     }
@@ -163,19 +277,10 @@ public class TextAnalyzer {
      * @return String que representa el TextAnalizer en HTML
      */
     public String html() {
+        indice();//la tabla necesita el orden completo, asi todo sale del indice
 
-        ArbolAVL<ArrayString> jj = new ArbolAVL<>();
-        ArbolRojinegro<ArrayString> j =  new ArbolRojinegro<>();
-        for(ArrayString a:losMasRepetidos(15)) {
-            j.agrega(a);
-            jj.agrega(a);
-        }
-        String  y = "";
-        for(ArrayString a:losMasRepetidos(1)) {
-            y=a.string;
-        }
         String h = "";
-        for(ArrayString f :losMasRepetidos(arbol.getElementos())) {
+        for(ArrayString f :losMasRepetidos(elementos)) {
             h = (h+"<tr>\r\n"
 		 +"<td>"+f.string+"</td>"+"\r\n"+
 		 "<td>"+f.repeticiones+"</td>"+"\r\n");
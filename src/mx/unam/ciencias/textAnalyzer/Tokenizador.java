@@ -0,0 +1,187 @@
+package mx.unam.ciencias.textAnalyzer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.text.Normalizer;
+import java.util.Arrays;
+
+/**
+ * Clase que separa un texto en palabras recorriendo sus caracteres una sola
+ * vez. Una palabra es una secuencia maximal de letras o digitos decimales, a
+ * cada caracter se le quitan los acentos usando una tabla, y solo se entregan
+ * las palabras de mas de {@link #LONGITUD_MINIMA} caracteres. Es equivalente a
+ * reemplazar lo que no sea letra o digito por espacios, normalizar en NFD,
+ * quitar las marcas diacriticas y separar por espacios, pero sin crear ninguna
+ * cadena intermedia.
+ */
+public class Tokenizador {
+
+    /**
+     * Interfaz para recibir las palabras que encuentra el tokenizador.
+     */
+    @FunctionalInterface
+    public interface Receptor {
+
+        /**
+         * Recibe una palabra. El arreglo es reutilizado por el tokenizador,
+         * asi que no debe guardarse despues de que el metodo regrese.
+         * @param palabra arreglo con los caracteres de la palabra
+         * @param longitud numero de caracteres validos en el arreglo
+         */
+        public void recibe(char[] palabra, int longitud);
+    }
+
+    /** Las palabras con esta longitud o menos se descartan. */
+    public static final int LONGITUD_MINIMA = 2;
+
+    /* La tabla se llena al inicio hasta Latin Extendido-B; el resto de los
+     * caracteres se clasifica la primera vez que aparece. */
+    private static final int TABLA_INICIAL = 0x250;
+    /* Marca de un caracter que no se ha clasificado. */
+    private static final char DESCONOCIDO = '\uFFFF';
+    /* Marca de un caracter que no forma parte de una palabra. */
+    private static final char SEPARADOR = '\u0000';
+    /* Marca de una letra que sin acentos no es un solo caracter. */
+    private static final char COMPLEJO = '\uFFFE';
+    /* Para cada caracter, el mismo caracter sin acentos o una marca. */
+    private static final char[] TABLA = new char[Character.MAX_VALUE + 1];
+
+    static {
+        Arrays.fill(TABLA, DESCONOCIDO);
+        for (int c = 0; c < TABLA_INICIAL; c++)
+            TABLA[c] = clasifica(c);
+    }
+
+    /* Quien recibe las palabras. */
+    private Receptor receptor;
+    /* La palabra que se esta leyendo. */
+    private char[] palabra;
+    /* Longitud de la palabra que se esta leyendo. */
+    private int longitud;
+    /* Surrogado alto que espera a su pareja, o 0 si no hay. */
+    private char alto;
+
+    /**
+     * Constructor que recibe a quien se le entregaran las palabras.
+     * @param receptor el receptor de las palabras
+     */
+    public Tokenizador(Receptor receptor) {
+        this.receptor = receptor;
+        this.palabra = new char[64];
+    }
+
+    /**
+     * Procesa un bloque de caracteres. Las palabras pueden continuar de un
+     * bloque al siguiente.
+     * @param bloque arreglo con los caracteres
+     * @param inicio primer caracter a procesar
+     * @param fin uno despues del ultimo caracter a procesar
+     */
+    public void alimenta(char[] bloque, int inicio, int fin) {
+        for (int i = inicio; i < fin; i++) {
+            char c = bloque[i];
+            if (alto != 0) {
+                char h = alto;
+                alto = 0;
+                if (Character.isLowSurrogate(c)) {
+                    suplementario(Character.toCodePoint(h, c));
+                    continue;
+                }
+                corta();
+            }
+            char t = TABLA[c];
+            if (t == DESCONOCIDO)
+                t = TABLA[c] = clasifica(c);
+            if (t == SEPARADOR) {
+                if (Character.isHighSurrogate(c))
+                    alto = c;
+                else
+                    corta();
+            } else if (t == COMPLEJO) {
+                agregaDescompuesto(c);
+            } else {
+                if (longitud == palabra.length)
+                    palabra = Arrays.copyOf(palabra, 2 * longitud);
+                palabra[longitud++] = t;
+            }
+        }
+    }
+
+    /**
+     * Entrega la ultima palabra pendiente, si la hay. Se debe llamar al
+     * terminar el texto.
+     */
+    public void termina() {
+        alto = 0;
+        corta();
+    }
+
+    /**
+     * Procesa todo lo que se pueda leer del lector, y termina.
+     * @param lector el lector del texto
+     * @throws IOException si hay un error de lectura
+     */
+    public void lee(Reader lector) throws IOException {
+        char[] bloque = new char[1 << 16];
+        int leidos;
+        while ((leidos = lector.read(bloque)) != -1)
+            alimenta(bloque, 0, leidos);
+        termina();
+    }
+
+    /* Termina la palabra actual y la entrega si es suficientemente larga. */
+    private void corta() {
+        if (longitud > LONGITUD_MINIMA)
+            receptor.recibe(palabra, longitud);
+        longitud = 0;
+    }
+
+    /* Procesa un caracter fuera del plano basico. */
+    private void suplementario(int cp) {
+        if (esDePalabra(cp))
+            agregaDescompuesto(cp);
+        else
+            corta();
+    }
+
+    /* Agrega a la palabra la descomposicion sin acentos del caracter. */
+    private void agregaDescompuesto(int cp) {
+        String s = quitaAcentos(cp);
+        int n = s.length();
+        if (longitud + n > palabra.length)
+            palabra = Arrays.copyOf(palabra, 2 * (longitud + n));
+        s.getChars(0, n, palabra, longitud);
+        longitud += n;
+    }
+
+    /* Nos dice si el caracter forma parte de una palabra. */
+    private static boolean esDePalabra(int cp) {
+        return Character.isLetter(cp) ||
+            Character.getType(cp) == Character.DECIMAL_DIGIT_NUMBER;
+    }
+
+    /* Regresa el caracter descompuesto en NFD y sin marcas diacriticas. */
+    private static String quitaAcentos(int cp) {
+        String s = Normalizer.normalize(new String(Character.toChars(cp)),
+                                        Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x300 || c > 0x36F)
+                sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    /* Calcula la entrada de la tabla para un caracter del plano basico. */
+    private static char clasifica(int c) {
+        if (!esDePalabra(c))
+            return SEPARADOR;
+        String s = quitaAcentos(c);
+        if (s.length() != 1)
+            return COMPLEJO;
+        char t = s.charAt(0);
+        return (t == SEPARADOR || t == DESCONOCIDO || t == COMPLEJO) ?
+            COMPLEJO : t;
+    }
+}